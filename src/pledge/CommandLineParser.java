@@ -13,18 +13,31 @@ public class CommandLineParser {
     private JCommander jCommander;
     private Generate commandGenerate;
     private Prioritize commandPrioritize;
+    private Coverage commandCoverage;
+    private Count commandCount;
     private String[] args;
     public static final String GENERATE = "generate_products";
     public static final String PRIORITIZE = "prioritize_products";
+    public static final String COVERAGE = "coverage";
+    public static final String COUNT = "count_products";
+    public static final String RANDOM = "random";
+    public static final String EA = "ea";
+    public static final String ISLANDS = "islands";
+    public static final String GREEDY = "greedy";
+    public static final String NEAR_OPTIMAL = "nearoptimal";
 
     public CommandLineParser(String[] args, String programName) {
         this.args = args;
 
         commandGenerate = new Generate();
         commandPrioritize = new Prioritize();
+        commandCoverage = new Coverage();
+        commandCount = new Count();
         jCommander = new JCommander();
         jCommander.addCommand(GENERATE, commandGenerate);
         jCommander.addCommand(PRIORITIZE, commandPrioritize);
+        jCommander.addCommand(COVERAGE, commandCoverage);
+        jCommander.addCommand(COUNT, commandCount);
         jCommander.setProgramName("java -jar " + programName + ".jar");
 
     }
@@ -42,6 +55,22 @@ public class CommandLineParser {
         public long timeAllowed = 60000;
         @Parameter(names = "-dimacs", description = "Specify if the FM is a dimacs one")
         public boolean dimacs = false;
+        @Parameter(names = "-threads", description = "Number of threads used by the parallel computations")
+        public int threads = Runtime.getRuntime().availableProcessors();
+        @Parameter(names = "-technique", description = "Generation technique (random, ea or islands)")
+        public String technique = RANDOM;
+        @Parameter(names = "-islands", description = "Number of islands of the islands technique (the number of threads by default)")
+        public int islands = 0;
+        @Parameter(names = "-uniform", description = "Draw the random products and the initial products of the evolutionary algorithms uniformly, from a binary decision diagram of the FM")
+        public boolean uniform = false;
+        @Parameter(names = "-distancesHeapMB", description = "Heap budget of a distance matrix in MB, above which it is stored outside of the heap (a quarter of the heap by default)")
+        public Long distancesHeapMB = null;
+        @Parameter(names = "-floatDistances", description = "Store the distances as floats instead of doubles")
+        public boolean floatDistances = false;
+        @Parameter(names = "-spillDirectory", description = "Directory of the files storing the distance matrices above the heap budget (direct buffers by default)")
+        public String spillDirectory = null;
+        @Parameter(names = "-seed", description = "Seed of the random generators (random by default)")
+        public Long seed = null;
     }
     
     @Parameters(commandDescription = "Prioritize products")
@@ -50,18 +79,80 @@ public class CommandLineParser {
         @Parameter(names = "-i", description = "Input products file", required = true)
         public String inputFile;
         
-        @Parameter(names = "-t", description = "technique (greedy or nearoptimal)", required = true)
+        @Parameter(names = "-t", description = "Prioritization technique (greedy or nearoptimal)", required = true)
         public String technique;
         
         @Parameter(names = "-o", description = "Output file", required = true)
         public String outputFile;
 
+        @Parameter(names = "-threads", description = "Number of threads used by the parallel computations")
+        public int threads = Runtime.getRuntime().availableProcessors();
+        @Parameter(names = "-distancesHeapMB", description = "Heap budget of a distance matrix in MB, above which it is stored outside of the heap (a quarter of the heap by default)")
+        public Long distancesHeapMB = null;
+        @Parameter(names = "-floatDistances", description = "Store the distances as floats instead of doubles")
+        public boolean floatDistances = false;
+        @Parameter(names = "-spillDirectory", description = "Directory of the files storing the distance matrices above the heap budget (direct buffers by default)")
+        public String spillDirectory = null;
+    }
+
+    @Parameters(commandDescription = "Compute the t-wise coverage of products")
+    public class Coverage {
+
+        @Parameter(names = "-fm", description = "Feature model (SPLOT format by default)", required = true)
+        public String fmFile;
+        @Parameter(names = "-dimacs", description = "Specify if the FM is a dimacs one")
+        public boolean dimacs = false;
+        @Parameter(names = "-i", description = "Input products file", required = true)
+        public String inputFile;
+        @Parameter(names = "-t", description = "Strength of the coverage (2 to 6)")
+        public int strength = 2;
+        @Parameter(names = "-curve", description = "Print the coverage after each product")
+        public boolean curve = false;
+        @Parameter(names = "-cache", description = "Directory caching the valid tuples of the feature models")
+        public String cacheDirectory = null;
+        @Parameter(names = "-approximate", description = "Estimate the coverage from random tuples")
+        public boolean approximate = false;
+        @Parameter(names = "-samples", description = "Maximum number of sampled tuples of the approximate coverage (0 for no limit)")
+        public long samples = 100000;
+        @Parameter(names = "-seconds", description = "Maximum duration of the approximate coverage in seconds (0 for no limit)")
+        public long seconds = 0;
+        @Parameter(names = "-threads", description = "Number of threads used by the parallel computations")
+        public int threads = Runtime.getRuntime().availableProcessors();
+        @Parameter(names = "-seed", description = "Seed of the random generators (random by default)")
+        public Long seed = null;
+    }
+
+    @Parameters(commandDescription = "Count the products of a feature model")
+    public class Count {
+
+        @Parameter(names = "-fm", description = "Feature model (SPLOT format by default)", required = true)
+        public String fmFile;
+        @Parameter(names = "-dimacs", description = "Specify if the FM is a dimacs one")
+        public boolean dimacs = false;
+        @Parameter(names = "-seconds", description = "Maximum duration of the exact count, then of the estimation, in seconds")
+        public long seconds = 5;
+        @Parameter(names = "-cache", description = "Directory caching the number of products of the feature models")
+        public String cacheDirectory = null;
+        @Parameter(names = "-seed", description = "Seed of the random generators (random by default)")
+        public Long seed = null;
     }
 
     public Generate getCommandGenerate() {
         return commandGenerate;
     }
 
+    public Prioritize getCommandPrioritize() {
+        return commandPrioritize;
+    }
+
+    public Coverage getCommandCoverage() {
+        return commandCoverage;
+    }
+
+    public Count getCommandCount() {
+        return commandCount;
+    }
+
     public void parseArgs() {
         jCommander.parse(args);
     }
@@ -22,8 +22,15 @@ package pledge;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import pledge.core.CoverageResult;
+import pledge.core.CoverageTracker;
+import pledge.core.ModelCount;
 import pledge.core.ModelPLEDGE;
 import pledge.core.Product;
+import pledge.core.techniques.generation.EvolutionaryAlgorithm1Plus1;
+import pledge.core.techniques.generation.IslandEvolutionaryAlgorithm;
+import pledge.core.techniques.prioritization.SimilarityGreedy;
+import pledge.core.techniques.prioritization.SimilarityNearOptimal;
 import pledge.gui.GUI;
 
 /**
@@ -50,6 +57,12 @@ public class Main {
                     parser.parseArgs();
                     if (parser.getCommandName().equals(CommandLineParser.GENERATE)) {
                         ModelPLEDGE model = new ModelPLEDGE();
+                        model.setParallelism(parser.getCommandGenerate().threads);
+                        setDistancesOptions(model, parser.getCommandGenerate().distancesHeapMB,
+                                parser.getCommandGenerate().floatDistances, parser.getCommandGenerate().spillDirectory);
+                        if (parser.getCommandGenerate().seed != null) {
+                            model.setSeed(parser.getCommandGenerate().seed);
+                        }
                         if (parser.getCommandGenerate().dimacs) {
                             model.loadFeatureModel(parser.getCommandGenerate().fmFile, model.getFeatureModelFormat().DIMACS);
                         } else {
@@ -57,13 +70,85 @@ public class Main {
                         }
                         model.setNbProductsToGenerate(parser.getCommandGenerate().nbProds);
                         model.setGenerationTimeMSAllowed(parser.getCommandGenerate().timeAllowed);
-                        //model.generateProducts();
-                        //model.saveProducts(parser.getCommandGenerate().outputFile);
-                        System.out.println("Generating random products:");
-                        List<Product> unpredictedProducts=model.getUnpredictableProducts(parser.getCommandGenerate().nbProds);
-                        model.setProducts(unpredictedProducts);
+                        model.setUniformSampling(parser.getCommandGenerate().uniform);
+                        String technique = parser.getCommandGenerate().technique;
+                        if (technique.equals(CommandLineParser.EA)) {
+                            model.SetGenerationTechniqueByName(EvolutionaryAlgorithm1Plus1.NAME);
+                            model.generateProducts();
+                        } else if (technique.equals(CommandLineParser.ISLANDS)) {
+                            model.SetGenerationTechniqueByName(IslandEvolutionaryAlgorithm.NAME);
+                            ((IslandEvolutionaryAlgorithm) model.getGenerationTechnique()).setNbIslands(parser.getCommandGenerate().islands);
+                            model.generateProducts();
+                        } else if (technique.equals(CommandLineParser.RANDOM)) {
+                            System.out.println("Generating random products:");
+                            List<Product> unpredictedProducts = model.isUniformSampling()
+                                    ? model.getUniformProducts(parser.getCommandGenerate().nbProds, model.createRandom())
+                                    : model.sampleProducts(parser.getCommandGenerate().nbProds);
+                            model.setProducts(unpredictedProducts);
+                        } else {
+                            throw new IllegalArgumentException("Unknown generation technique: " + technique);
+                        }
                         model.saveProducts(parser.getCommandGenerate().outputFile);
                         
+                    } else if (parser.getCommandName().equals(CommandLineParser.PRIORITIZE)) {
+                        ModelPLEDGE model = new ModelPLEDGE();
+                        model.setParallelism(parser.getCommandPrioritize().threads);
+                        setDistancesOptions(model, parser.getCommandPrioritize().distancesHeapMB,
+                                parser.getCommandPrioritize().floatDistances, parser.getCommandPrioritize().spillDirectory);
+                        model.loadProducts(parser.getCommandPrioritize().inputFile);
+                        String technique = parser.getCommandPrioritize().technique;
+                        if (technique.equals(CommandLineParser.GREEDY)) {
+                            model.SetPrioritizationTechniqueByName(SimilarityGreedy.NAME);
+                        } else if (technique.equals(CommandLineParser.NEAR_OPTIMAL)) {
+                            model.SetPrioritizationTechniqueByName(SimilarityNearOptimal.NAME);
+                        } else {
+                            throw new IllegalArgumentException("Unknown prioritization technique: " + technique);
+                        }
+                        model.prioritizeProducts();
+                        model.saveProducts(parser.getCommandPrioritize().outputFile);
+
+                    } else if (parser.getCommandName().equals(CommandLineParser.COVERAGE)) {
+                        ModelPLEDGE model = new ModelPLEDGE();
+                        model.setParallelism(parser.getCommandCoverage().threads);
+                        model.setValidTuplesCacheDirectory(parser.getCommandCoverage().cacheDirectory);
+                        if (parser.getCommandCoverage().seed != null) {
+                            model.setSeed(parser.getCommandCoverage().seed);
+                        }
+                        if (parser.getCommandCoverage().dimacs) {
+                            model.loadFeatureModel(parser.getCommandCoverage().fmFile, model.getFeatureModelFormat().DIMACS);
+                        } else {
+                            model.loadFeatureModel(parser.getCommandCoverage().fmFile, model.getFeatureModelFormat().SPLOT);
+                        }
+                        model.loadProductsFM(parser.getCommandCoverage().inputFile);
+                        if (parser.getCommandCoverage().approximate) {
+                            System.out.println(model.getApproximateCoverage(parser.getCommandCoverage().strength,
+                                    parser.getCommandCoverage().samples, parser.getCommandCoverage().seconds * 1000));
+                            return;
+                        }
+                        CoverageResult result = model.computeCoverage(parser.getCommandCoverage().strength);
+                        CoverageTracker tracker = result.getCoverageTracker();
+                        System.out.println(model.describeCoverage(result));
+                        if (parser.getCommandCoverage().curve) {
+                            long[] coveredCounts = tracker.getCoveredCounts();
+                            double[] curve = tracker.getCurve();
+                            for (int i = 0; i < curve.length; i++) {
+                                System.out.println((i + 1) + ";" + coveredCounts[i] + ";" + curve[i]);
+                            }
+                        }
+                    } else if (parser.getCommandName().equals(CommandLineParser.COUNT)) {
+                        ModelPLEDGE model = new ModelPLEDGE();
+                        model.setValidTuplesCacheDirectory(parser.getCommandCount().cacheDirectory);
+                        model.setCountingTimeoutMS(parser.getCommandCount().seconds * 1000);
+                        if (parser.getCommandCount().seed != null) {
+                            model.setSeed(parser.getCommandCount().seed);
+                        }
+                        if (parser.getCommandCount().dimacs) {
+                            model.loadFeatureModel(parser.getCommandCount().fmFile, model.getFeatureModelFormat().DIMACS);
+                        } else {
+                            model.loadFeatureModel(parser.getCommandCount().fmFile, model.getFeatureModelFormat().SPLOT);
+                        }
+                        ModelCount count = model.countProducts();
+                        System.out.println("Number of products: " + (count != null ? count : "unknown (timeout)"));
                     }
                 } catch (Exception e) {
                     parser.printUsage();
@@ -76,4 +161,19 @@ public class Main {
             Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
         }
     }
+
+    /**
+     * Set the storage of the distance matrices of a model.
+     * @param model the model of the application.
+     * @param distancesHeapMB the heap budget of a distance matrix in MB, or null to keep the default one.
+     * @param floatDistances true to store the distances as floats.
+     * @param spillDirectory the directory of the matrices above the heap budget, or null to use direct buffers.
+     */
+    private static void setDistancesOptions(ModelPLEDGE model, Long distancesHeapMB, boolean floatDistances, String spillDirectory) {
+        if (distancesHeapMB != null) {
+            model.setDistancesHeapBudget(distancesHeapMB * 1024 * 1024);
+        }
+        model.setDistancesFloatPrecision(floatDistances);
+        model.setDistancesSpillDirectory(spillDirectory);
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * This class computes the backbone of a feature model, i.e. the literals
+ * which are true in every product. It starts from one model of the solver
+ * and keeps the literals of this model as candidates. Each remaining
+ * candidate is checked by asking the solver for a model where it is false:
+ * if there is none, the literal belongs to the backbone, otherwise every
+ * candidate contradicted by the new model is discarded without a check.
+ *
+ * @author agent
+ */
+public class BackboneCalculator {
+
+    private static final String CURRENT_ACTION_BACKBONE = "Finding core and dead features...";
+    private final ISolver solver;
+    private int satCallsCount;
+    private ProgressListener progressListener;
+
+    /**
+     * Create a backbone calculator.
+     * @param solver the solver holding the constraints of the feature model.
+     */
+    public BackboneCalculator(ISolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Set the listener notified after each feature.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Compute the backbone literals of the features. If the feature model has
+     * no product, the literals f and -f of each feature are both returned.
+     * @param featuresCount the number of features of the feature model.
+     * @return the literals true in every product, sorted by feature.
+     * @throws TimeoutException if the solver cannot answer in time.
+     */
+    public List<Integer> compute(int featuresCount) throws TimeoutException {
+        List<Integer> backbone = new ArrayList<Integer>();
+        satCallsCount = 1;
+        if (!solver.isSatisfiable()) {
+            for (int f = 1; f <= featuresCount; f++) {
+                backbone.add(f);
+                backbone.add(-f);
+            }
+            return backbone;
+        }
+
+        int[] candidates = new int[featuresCount + 1];
+        for (int f = 1; f <= featuresCount; f++) {
+            candidates[f] = solver.model(f) ? f : -f;
+        }
+
+        IVecInt assumption = new VecInt(1);
+        for (int f = 1; f <= featuresCount; f++) {
+            if (candidates[f] != 0) {
+                assumption.clear();
+                assumption.push(-candidates[f]);
+                satCallsCount++;
+                if (solver.isSatisfiable(assumption)) {
+                    for (int g = f; g <= featuresCount; g++) {
+                        if (candidates[g] != 0 && solver.model(g) != (candidates[g] > 0)) {
+                            candidates[g] = 0;
+                        }
+                    }
+                } else {
+                    backbone.add(candidates[f]);
+                }
+            }
+            if (progressListener != null) {
+                progressListener.progress(CURRENT_ACTION_BACKBONE, (int) (f / (double) featuresCount * 100));
+            }
+        }
+        return backbone;
+    }
+
+    /**
+     * Returns the number of satisfiability checks of the last computation.
+     * @return the number of calls to the solver.
+     */
+    public int getSatCallsCount() {
+        return satCallsCount;
+    }
+}
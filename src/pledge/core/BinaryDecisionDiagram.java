@@ -0,0 +1,494 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class compiles the clauses of a feature model into a reduced ordered
+ * binary decision diagram. The variables are ordered with the FORCE heuristic,
+ * which moves the variables of each clause close to each other so that the
+ * diagram stays small. Once compiled, the diagram
+ * counts the products of the feature model exactly and draws products
+ * uniformly at random with one walk from the root to the true terminal.
+ * A compiled diagram is not modified anymore, so several threads may draw
+ * products from it, each one with its own random generator.
+ *
+ * @author agent
+ */
+public class BinaryDecisionDiagram {
+
+    public static final int DEFAULT_MAX_NODES = 1 << 22;
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int ORDERING_ITERATIONS = 50;
+    private final int variablesCount;
+    private final int maxNodes;
+    /* The variable (from 0) at each level of the diagram. */
+    private final int[] order;
+    /* The nodes: the level of the variable tested by the node (from 0, the
+     * terminals testing variablesCount) and the nodes reached when it is
+     * false (low) or true (high). */
+    private int[] variables, lows, highs;
+    private int nodesCount;
+    /* The nodes indexed by (variable, low, high), with open addressing. */
+    private int[] uniqueTable;
+    /* A lossy cache of the conjunctions already computed. */
+    private long[] cacheKeys;
+    private int[] cacheValues;
+    private int root;
+    /* The number of assignments of the variables from the one of each node
+     * to the last one for which the node is true. */
+    private BigInteger[] counts;
+
+    /**
+     * Compile some clauses.
+     * @param cnf the clauses of the feature model.
+     * @throws IllegalStateException if the diagram has more than
+     * {@link #DEFAULT_MAX_NODES} nodes.
+     */
+    public BinaryDecisionDiagram(CompiledCNF cnf) {
+        this(cnf, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Compile some clauses.
+     * @param cnf the clauses of the feature model.
+     * @param maxNodes the maximum number of nodes of the diagram while it is built.
+     * @throws IllegalStateException if the diagram has more than maxNodes nodes.
+     */
+    public BinaryDecisionDiagram(CompiledCNF cnf, int maxNodes) {
+        this.variablesCount = cnf.getVariablesCount();
+        this.maxNodes = Math.max(maxNodes, 2);
+        List<int[]> clauses = getClauses(cnf);
+        order = computeOrder(variablesCount, clauses);
+        int[] levels = new int[variablesCount];
+        for (int level = 0; level < variablesCount; level++) {
+            levels[order[level]] = level;
+        }
+        variables = new int[INITIAL_CAPACITY];
+        lows = new int[INITIAL_CAPACITY];
+        highs = new int[INITIAL_CAPACITY];
+        variables[FALSE] = variablesCount;
+        variables[TRUE] = variablesCount;
+        nodesCount = 2;
+        resetTables(INITIAL_CAPACITY * 2);
+        root = TRUE;
+        int gcThreshold = Math.max(INITIAL_CAPACITY, this.maxNodes / 4);
+        for (int[] clause : sortClauses(clauses, levels)) {
+            root = and(root, clause(clause));
+            if (root == FALSE) {
+                break;
+            }
+            if (nodesCount > gcThreshold) {
+                collectGarbage();
+                gcThreshold = Math.max(gcThreshold, nodesCount * 2);
+            }
+        }
+        collectGarbage();
+        uniqueTable = null;
+        cacheKeys = null;
+        cacheValues = null;
+        computeCounts();
+    }
+
+    /**
+     * Returns the clauses, as arrays of literal bit indices.
+     */
+    private static List<int[]> getClauses(CompiledCNF cnf) {
+        List<int[]> clauses = new ArrayList<int[]>(cnf.getClausesCount());
+        for (int i = 0; i < cnf.getClausesCount(); i++) {
+            int[] clause = cnf.getClause(i);
+            for (int j = 0; j < clause.length; j++) {
+                clause[j] = Product.literalToIndex(clause[j]);
+            }
+            clauses.add(clause);
+        }
+        return clauses;
+    }
+
+    /**
+     * Order the variables with the FORCE heuristic: each variable is moved to
+     * the mean of the centres of the clauses containing it, until the total
+     * span of the clauses stops decreasing.
+     * @return the variable at each level.
+     */
+    private static int[] computeOrder(int variablesCount, List<int[]> clauses) {
+        final double[] positions = new double[variablesCount];
+        Integer[] order = new Integer[variablesCount];
+        for (int v = 0; v < variablesCount; v++) {
+            positions[v] = v;
+            order[v] = v;
+        }
+        int[] bestOrder = new int[variablesCount];
+        for (int v = 0; v < variablesCount; v++) {
+            bestOrder[v] = v;
+        }
+        long bestSpan = getSpan(clauses, positions);
+        double[] sums = new double[variablesCount];
+        int[] degrees = new int[variablesCount];
+        for (int iteration = 0; iteration < ORDERING_ITERATIONS; iteration++) {
+            Arrays.fill(sums, 0);
+            Arrays.fill(degrees, 0);
+            for (int[] clause : clauses) {
+                double centre = 0;
+                for (int index : clause) {
+                    centre += positions[index >> 1];
+                }
+                centre /= clause.length;
+                for (int index : clause) {
+                    sums[index >> 1] += centre;
+                    degrees[index >> 1]++;
+                }
+            }
+            for (int v = 0; v < variablesCount; v++) {
+                if (degrees[v] > 0) {
+                    positions[v] = sums[v] / degrees[v];
+                }
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+
+                @Override
+                public int compare(Integer v1, Integer v2) {
+                    return Double.compare(positions[v1], positions[v2]);
+                }
+            });
+            for (int level = 0; level < variablesCount; level++) {
+                positions[order[level]] = level;
+            }
+            long span = getSpan(clauses, positions);
+            if (span >= bestSpan) {
+                break;
+            }
+            bestSpan = span;
+            for (int level = 0; level < variablesCount; level++) {
+                bestOrder[level] = order[level];
+            }
+        }
+        return bestOrder;
+    }
+
+    /**
+     * Returns the sum over the clauses of the distance between their first
+     * and their last variable.
+     */
+    private static long getSpan(List<int[]> clauses, double[] positions) {
+        long span = 0;
+        for (int[] clause : clauses) {
+            double min = Double.MAX_VALUE;
+            double max = -1;
+            for (int index : clause) {
+                min = Math.min(min, positions[index >> 1]);
+                max = Math.max(max, positions[index >> 1]);
+            }
+            if (clause.length > 0) {
+                span += (long) (max - min);
+            }
+        }
+        return span;
+    }
+
+    /**
+     * Map the variables of the clauses to their level and sort the clauses
+     * by decreasing level of their first variable, so that the diagram is
+     * built from the bottom.
+     */
+    private static List<int[]> sortClauses(List<int[]> clauses, int[] levels) {
+        List<int[]> sortedClauses = new ArrayList<int[]>(clauses.size());
+        for (int[] clause : clauses) {
+            int[] indices = new int[clause.length];
+            for (int j = 0; j < clause.length; j++) {
+                indices[j] = (levels[clause[j] >> 1] << 1) | (clause[j] & 1);
+            }
+            Arrays.sort(indices);
+            sortedClauses.add(indices);
+        }
+        Collections.sort(sortedClauses, new Comparator<int[]>() {
+
+            @Override
+            public int compare(int[] c1, int[] c2) {
+                int first1 = c1.length > 0 ? c1[0] : Integer.MAX_VALUE;
+                int first2 = c2.length > 0 ? c2[0] : Integer.MAX_VALUE;
+                return Integer.compare(first2, first1);
+            }
+        });
+        return sortedClauses;
+    }
+
+    /**
+     * Returns the diagram of a clause.
+     * @param indices the sorted literals of the clause, as bit indices of
+     * the levels of their variables.
+     */
+    private int clause(int[] indices) {
+        int node = FALSE;
+        for (int i = indices.length - 1; i >= 0; i--) {
+            int level = indices[i] >> 1;
+            if (i > 0 && indices[i - 1] >> 1 == level) {
+                if (indices[i - 1] != indices[i]) {
+                    // The clause contains a literal and its negation.
+                    return TRUE;
+                }
+                continue;
+            }
+            node = (indices[i] & 1) == 0 ? mk(level, node, TRUE) : mk(level, TRUE, node);
+        }
+        return node;
+    }
+
+    private void resetTables(int tableSize) {
+        uniqueTable = new int[tableSize];
+        Arrays.fill(uniqueTable, -1);
+        cacheKeys = new long[tableSize / 2];
+        Arrays.fill(cacheKeys, -1L);
+        cacheValues = new int[tableSize / 2];
+    }
+
+    private static int hash(long a, long b, long c) {
+        long h = (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL) ^ (c * 0x165667B19E3779F9L);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns the node testing a variable, creating it if needed.
+     */
+    private int mk(int variable, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int mask = uniqueTable.length - 1;
+        int slot = hash(variable, low, high) & mask;
+        int node;
+        while ((node = uniqueTable[slot]) >= 0) {
+            if (variables[node] == variable && lows[node] == low && highs[node] == high) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (nodesCount >= maxNodes) {
+            throw new IllegalStateException("The binary decision diagram exceeds " + maxNodes + " nodes");
+        }
+        if (nodesCount == variables.length) {
+            int capacity = (int) Math.min((long) variables.length * 2, maxNodes);
+            variables = Arrays.copyOf(variables, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+        }
+        node = nodesCount++;
+        variables[node] = variable;
+        lows[node] = low;
+        highs[node] = high;
+        uniqueTable[slot] = node;
+        if (nodesCount * 2 > uniqueTable.length) {
+            rehash(uniqueTable.length * 2);
+        }
+        return node;
+    }
+
+    private void rehash(int tableSize) {
+        resetTables(tableSize);
+        int mask = tableSize - 1;
+        for (int node = 2; node < nodesCount; node++) {
+            int slot = hash(variables[node], lows[node], highs[node]) & mask;
+            while (uniqueTable[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            uniqueTable[slot] = node;
+        }
+    }
+
+    /**
+     * Returns the conjunction of two nodes.
+     */
+    private int and(int a, int b) {
+        if (a == FALSE || b == FALSE) {
+            return FALSE;
+        }
+        if (a == TRUE || a == b) {
+            return b;
+        }
+        if (b == TRUE) {
+            return a;
+        }
+        if (a > b) {
+            int c = a;
+            a = b;
+            b = c;
+        }
+        long key = ((long) a << 32) | b;
+        int slot = hash(a, b, 0) & (cacheKeys.length - 1);
+        if (cacheKeys[slot] == key) {
+            return cacheValues[slot];
+        }
+        int variable = Math.min(variables[a], variables[b]);
+        int low = and(variables[a] == variable ? lows[a] : a, variables[b] == variable ? lows[b] : b);
+        int high = and(variables[a] == variable ? highs[a] : a, variables[b] == variable ? highs[b] : b);
+        int result = mk(variable, low, high);
+        // The tables may have been reallocated by mk.
+        slot = hash(a, b, 0) & (cacheKeys.length - 1);
+        cacheKeys[slot] = key;
+        cacheValues[slot] = result;
+        return result;
+    }
+
+    /**
+     * Keep only the nodes reachable from the root. The children of a node
+     * are kept before it.
+     */
+    private void collectGarbage() {
+        int[] newIndices = new int[nodesCount];
+        Arrays.fill(newIndices, -1);
+        newIndices[FALSE] = FALSE;
+        newIndices[TRUE] = TRUE;
+        int[] newVariables = new int[Math.max(INITIAL_CAPACITY, nodesCount)];
+        int[] newLows = new int[newVariables.length];
+        int[] newHighs = new int[newVariables.length];
+        newVariables[FALSE] = variablesCount;
+        newVariables[TRUE] = variablesCount;
+        int newCount = 2;
+        // Iterative post-order traversal, the diagram may be deep.
+        int[] stack = new int[nodesCount];
+        int top = 0;
+        if (newIndices[root] < 0) {
+            stack[top++] = root;
+        }
+        while (top > 0) {
+            int node = stack[top - 1];
+            int low = lows[node];
+            int high = highs[node];
+            if (newIndices[low] < 0) {
+                stack[top++] = low;
+            } else if (newIndices[high] < 0) {
+                stack[top++] = high;
+            } else {
+                top--;
+                if (newIndices[node] < 0) {
+                    newVariables[newCount] = variables[node];
+                    newLows[newCount] = newIndices[low];
+                    newHighs[newCount] = newIndices[high];
+                    newIndices[node] = newCount++;
+                }
+            }
+        }
+        root = newIndices[root];
+        variables = newVariables;
+        lows = newLows;
+        highs = newHighs;
+        nodesCount = newCount;
+        int tableSize = INITIAL_CAPACITY * 2;
+        while (nodesCount * 2 > tableSize) {
+            tableSize *= 2;
+        }
+        rehash(tableSize);
+    }
+
+    private void computeCounts() {
+        counts = new BigInteger[nodesCount];
+        counts[FALSE] = BigInteger.ZERO;
+        counts[TRUE] = BigInteger.ONE;
+        for (int node = 2; node < nodesCount; node++) {
+            counts[node] = getWeight(node, lows[node]).add(getWeight(node, highs[node]));
+        }
+    }
+
+    /**
+     * Returns the number of assignments of the variables from the one of a
+     * node to the last one for which the node is true and goes to a child.
+     */
+    private BigInteger getWeight(int node, int child) {
+        return counts[child].shiftLeft(variables[child] - variables[node] - 1);
+    }
+
+    /**
+     * Returns the number of variables of the diagram.
+     * @return the number of variables.
+     */
+    public int getVariablesCount() {
+        return variablesCount;
+    }
+
+    /**
+     * Returns the number of nodes of the diagram.
+     * @return the number of nodes, including the two terminals.
+     */
+    public int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * Returns the number of assignments of the variables satisfying the clauses.
+     * @return the number of products of the feature model.
+     */
+    public BigInteger getProductsCount() {
+        return counts[root].shiftLeft(variables[root]);
+    }
+
+    /**
+     * Draw an assignment satisfying the clauses uniformly at random.
+     * @param random the random generator.
+     * @return the signed literals of the variables, in the order of the variables.
+     * @throws IllegalStateException if the clauses are unsatisfiable.
+     */
+    public int[] sample(Random random) {
+        if (root == FALSE) {
+            throw new IllegalStateException("The feature model has no product");
+        }
+        int[] model = new int[variablesCount];
+        int level = 0;
+        int node = root;
+        while (node != TRUE) {
+            for (; level < variables[node]; level++) {
+                setLiteral(model, level, random.nextBoolean());
+            }
+            BigInteger r = randomBelow(counts[node], random);
+            if (r.compareTo(getWeight(node, lows[node])) < 0) {
+                setLiteral(model, level, false);
+                node = lows[node];
+            } else {
+                setLiteral(model, level, true);
+                node = highs[node];
+            }
+            level++;
+        }
+        for (; level < variablesCount; level++) {
+            setLiteral(model, level, random.nextBoolean());
+        }
+        return model;
+    }
+
+    private void setLiteral(int[] model, int level, boolean value) {
+        int variable = order[level];
+        model[variable] = value ? variable + 1 : -(variable + 1);
+    }
+
+    private static BigInteger randomBelow(BigInteger bound, Random random) {
+        BigInteger r;
+        do {
+            r = new BigInteger(bound.bitLength(), random);
+        } while (r.compareTo(bound) >= 0);
+        return r;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.List;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * This class is an immutable copy of the clauses of a feature model. It
+ * creates new solvers holding these clauses without reading the feature model
+ * file again, so that solvers can be created cheaply and from several threads.
+ *
+ * @author agent
+ */
+public class CompiledCNF {
+
+    private final int variablesCount;
+    private final int[][] clauses;
+
+    /**
+     * Create a compiled form of some clauses.
+     * @param variablesCount the number of variables of the clauses.
+     * @param clauses the signed literals of each clause.
+     */
+    public CompiledCNF(int variablesCount, List<int[]> clauses) {
+        this.clauses = new int[clauses.size()][];
+        int i = 0;
+        for (int[] clause : clauses) {
+            this.clauses[i++] = clause.clone();
+            for (int literal : clause) {
+                variablesCount = Math.max(variablesCount, Math.abs(literal));
+            }
+        }
+        this.variablesCount = variablesCount;
+    }
+
+    /**
+     * Returns the number of variables of the clauses.
+     * @return the number of variables.
+     */
+    public int getVariablesCount() {
+        return variablesCount;
+    }
+
+    /**
+     * Returns the number of clauses.
+     * @return the number of clauses.
+     */
+    public int getClausesCount() {
+        return clauses.length;
+    }
+
+    /**
+     * Returns a clause.
+     * @param i the index of the clause.
+     * @return a copy of the signed literals of the clause.
+     */
+    public int[] getClause(int i) {
+        return clauses[i].clone();
+    }
+
+    /**
+     * Create a new solver holding the clauses.
+     * @param solverName the name of the solver in the sat4j solver factory.
+     * @return a solver independent from the other ones.
+     * @throws ContradictionException if the clauses are trivially unsatisfiable.
+     */
+    public Solver createSolver(String solverName) throws ContradictionException {
+        Solver solver = (Solver) SolverFactory.instance().createSolverByName(solverName);
+        solver.newVar(variablesCount);
+        solver.setExpectedNumberOfClauses(clauses.length);
+        for (int[] clause : clauses) {
+            // The solver may reorder the literals of the vector it is given.
+            solver.addClause(new VecInt(clause.clone()));
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,545 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * This class computes the t-wise coverage of products, for a strength t
+ * between {@link TuplesSet#MIN_STRENGTH} and {@link TuplesSet#MAX_STRENGTH}.
+ * The tuples covered by the products and the valid tuples of the feature
+ * model are recorded in {@link TuplesSet}s. The valid tuples are enumerated
+ * lazily in the order of their ranks, split into shards of whole words of
+ * the set checked by the threads of the pool of the model, each with its
+ * own solver. A
+ * tuple is skipped if one of its pairs is invalid, and is valid without
+ * calling the solver if it is covered by a known product or by one of the
+ * last models returned by the solver. If the model has a cache directory,
+ * the valid tuples are read from a {@link ValidTuplesCache} when the same
+ * feature model has already been analysed. When the valid tuples are too
+ * many to be enumerated, the coverage can be estimated from random tuples.
+ *
+ * @author agent
+ */
+public class CoverageCalculator {
+
+    private static final String CURRENT_ACTION_SHARDS = "Computing the valid tuples of the model... shard ";
+    private static final String CURRENT_ACTION_SAMPLES = "Sampling the tuples of the model... sample ";
+    private static final int SAMPLES_PER_REPORT = 1024;
+    private static final int SHARDS_PER_THREAD = 4;
+    private static final int RECENT_WITNESSES = 32;
+    private static final int BITS_PER_WORD = 64;
+    private static final long MAX_SAMPLED_WORDS = 1L << 24;
+    private final ModelPLEDGE model;
+    private final int strength;
+    private final AtomicLong satCallsCount;
+    private final List<Product> witnesses;
+    private ProgressListener progressListener;
+
+    /**
+     * Create a coverage calculator for the feature model currently loaded.
+     * @param model the model of the application.
+     * @param strength the number of literals of the tuples.
+     */
+    public CoverageCalculator(ModelPLEDGE model, int strength) {
+        if (strength < TuplesSet.MIN_STRENGTH || strength > TuplesSet.MAX_STRENGTH) {
+            throw new IllegalArgumentException("The strength must be between " + TuplesSet.MIN_STRENGTH + " and " + TuplesSet.MAX_STRENGTH);
+        }
+        this.model = model;
+        this.strength = strength;
+        satCallsCount = new AtomicLong();
+        witnesses = new ArrayList<Product>();
+    }
+
+    /**
+     * Set the listener notified of the progress of the computations.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Add configurations used as witnesses of valid tuples. Each
+     * configuration is checked once, so it may be partial or invalid.
+     * @param configurations the configurations to add.
+     */
+    public void addWitnesses(Collection<Product> configurations) {
+        witnesses.addAll(configurations);
+    }
+
+    /**
+     * Returns the number of literals of the tuples.
+     * @return the strength of the coverage.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Returns the number of satisfiability checks of the last computation of
+     * the valid tuples.
+     * @return the number of calls to the solver.
+     */
+    public long getSatCallsCount() {
+        return satCallsCount.get();
+    }
+
+    /**
+     * Create an empty set for the tuples of the feature model.
+     * @return a set of tuples of the strength of this calculator.
+     */
+    public TuplesSet createTuplesSet() {
+        int featuresCount = model.getFeaturesList().size();
+        return strength == 2 ? new PairsSet(featuresCount) : new TuplesSet(strength, featuresCount);
+    }
+
+    /**
+     * Compute the tuples covered by some products.
+     * @param products the products to consider.
+     * @return the set of the tuples covered by at least one product.
+     */
+    public TuplesSet computeCoveredTuples(List<Product> products) {
+        TuplesSet tuples = createTuplesSet();
+        for (Product product : products) {
+            tuples.addProduct(product);
+        }
+        return tuples;
+    }
+
+    /**
+     * Count the valid tuples of the feature model on the pool of the model.
+     * @return the number of tuples of literals allowed by the feature model.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public long countValidTuples() throws Exception {
+        return computeValidTuples(model.getForkJoinPool()).size();
+    }
+
+    /**
+     * Compute the valid tuples of the feature model on the pool of the model.
+     * @return the set of the tuples of literals allowed by the feature model.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public TuplesSet computeValidTuples() throws Exception {
+        return computeValidTuples(model.getForkJoinPool());
+    }
+
+    /**
+     * Compute the valid tuples of the feature model.
+     * @param pool the pool running the shards.
+     * @return the set of the tuples of literals allowed by the feature model.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public TuplesSet computeValidTuples(ForkJoinPool pool) throws Exception {
+        satCallsCount.set(0);
+        ValidTuplesCache cache = null;
+        if (model.getValidTuplesCacheDirectory() != null) {
+            cache = new ValidTuplesCache(model.getValidTuplesCacheDirectory());
+            TuplesSet cached = cache.load(model, strength);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ValidPairsCalculator pairsCalculator = new ValidPairsCalculator(model);
+        pairsCalculator.addWitnesses(witnesses);
+        pairsCalculator.setProgressListener(progressListener);
+        final PairsSet validPairs = pairsCalculator.compute(pool);
+        satCallsCount.set(pairsCalculator.getSatCallsCount());
+        final TuplesSet validTuples;
+        if (strength == 2) {
+            validTuples = validPairs;
+        } else {
+            validTuples = computeValidTuples(pool, validPairs);
+        }
+        if (cache != null) {
+            cache.store(model, validTuples);
+        }
+        return validTuples;
+    }
+
+    private TuplesSet computeValidTuples(ForkJoinPool pool, final PairsSet validPairs) throws Exception {
+        int featuresCount = model.getFeaturesList().size();
+        final long tuplesCount = TuplesSet.getTuplesCount(featuresCount, strength);
+        if (tuplesCount == 0) {
+            return createTuplesSet();
+        }
+        // The witnessed tuples are marked in the result, whose words seed the shards.
+        final TuplesSet validTuples = computeCoveredTuples(computeWitnesses(featuresCount));
+        long wordsCount = (tuplesCount + BITS_PER_WORD - 1) / BITS_PER_WORD;
+        final int shardsCount = (int) Math.min(wordsCount, (long) pool.getParallelism() * SHARDS_PER_THREAD);
+        final AtomicInteger doneShards = new AtomicInteger();
+        final ThreadLocal<ISolver> solvers = new ThreadLocal<ISolver>();
+        List<Callable<Void>> shards = new ArrayList<Callable<Void>>(shardsCount);
+        for (int s = 0; s < shardsCount; s++) {
+            final int fromWord = (int) (wordsCount * s / shardsCount);
+            final int toWord = (int) (wordsCount * (s + 1) / shardsCount);
+            shards.add(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    ISolver solver = solvers.get();
+                    if (solver == null) {
+                        solver = model.createSolver();
+                        solvers.set(solver);
+                    }
+                    long[] bits = validTuples.getWords(fromWord, toWord);
+                    long fromRank = (long) fromWord * BITS_PER_WORD;
+                    long toRank = Math.min((long) toWord * BITS_PER_WORD, tuplesCount);
+                    checkTuples(solver, validPairs, fromRank, toRank, bits);
+                    validTuples.addWords(fromWord, bits);
+                    reportProgress(doneShards.incrementAndGet(), shardsCount);
+                    return null;
+                }
+            });
+        }
+
+        for (Future<Void> shard : pool.invokeAll(shards)) {
+            try {
+                shard.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        return validTuples;
+    }
+
+    /**
+     * Estimate the coverage of products on the pool of the model.
+     * @param products the products to consider.
+     * @param maxSamples the maximum number of sampled tuples, or 0 for no limit.
+     * @param maxTimeMS the maximum duration of the sampling in ms, or 0 for no limit.
+     * @return the estimation of the coverage of the products.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public CoverageEstimate estimateCoverage(List<Product> products, long maxSamples, long maxTimeMS) throws Exception {
+        return estimateCoverage(products, maxSamples, maxTimeMS, model.getForkJoinPool());
+    }
+
+    /**
+     * Estimate the coverage of products by checking random tuples. Each
+     * thread of the pool draws tuples of distinct literals uniformly at
+     * random until one of the budgets is spent. The threads are seeded from
+     * the seed of the model and share the number of tuples evenly, so that
+     * the estimation only depends on the seed if it is not stopped by the
+     * duration.
+     * @param products the products to consider.
+     * @param maxSamples the maximum number of sampled tuples, or 0 for no limit.
+     * @param maxTimeMS the maximum duration of the sampling in ms, or 0 for no limit.
+     * @param pool the pool running the sampling.
+     * @return the estimation of the coverage of the products.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public CoverageEstimate estimateCoverage(final List<Product> products, final long maxSamples, long maxTimeMS, ForkJoinPool pool) throws Exception {
+        if (maxSamples <= 0 && maxTimeMS <= 0) {
+            throw new IllegalArgumentException("The sampling needs a number of tuples or a duration");
+        }
+        long start = System.currentTimeMillis();
+        final long deadline = maxTimeMS > 0 ? start + maxTimeMS : Long.MAX_VALUE;
+        final int featuresCount = model.getFeaturesList().size();
+        satCallsCount.set(0);
+        final List<Product> validWitnesses = computeWitnesses(featuresCount);
+        final TuplesSet witnessedTuples = computeSampledTuples(validWitnesses, featuresCount);
+        final TuplesSet coveredTuples = computeSampledTuples(products, featuresCount);
+        final AtomicLong samplesCount = new AtomicLong();
+        final AtomicLong validSamplesCount = new AtomicLong();
+        final AtomicLong coveredSamplesCount = new AtomicLong();
+        List<Callable<Void>> samplers = new ArrayList<Callable<Void>>();
+        Random seeds = model.createRandom();
+        int samplersCount = pool.getParallelism();
+        for (int s = 0; s < samplersCount; s++) {
+            final long seed = seeds.nextLong();
+            final long quota = maxSamples > 0 ? maxSamples / samplersCount + (s < maxSamples % samplersCount ? 1 : 0) : Long.MAX_VALUE;
+            samplers.add(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    ISolver solver = model.createSolver();
+                    Random random = new Random(seed);
+                    Product[] recentWitnesses = new Product[RECENT_WITNESSES];
+                    int nextWitness = 0;
+                    IVecInt assumptions = new VecInt(strength);
+                    int[] indices = new int[strength];
+                    int[] literals = new int[strength];
+                    long drawn = 0;
+                    while (drawn++ < quota && System.currentTimeMillis() < deadline) {
+                        drawTuple(random, featuresCount * 2, indices);
+                        long sample = samplesCount.incrementAndGet();
+                        if (sample % SAMPLES_PER_REPORT == 0 && progressListener != null) {
+                            progressListener.progress(CURRENT_ACTION_SAMPLES + sample, maxSamples > 0 ? (int) (sample * 100 / maxSamples) : 0);
+                        }
+                        if (!isAllowedByIndices(indices, literals)) {
+                            continue;
+                        }
+                        boolean valid = isWitnessed(literals, recentWitnesses) || isWitnessed(literals, witnessedTuples, validWitnesses);
+                        if (!valid) {
+                            assumptions.clear();
+                            for (int literal : literals) {
+                                assumptions.push(literal);
+                            }
+                            satCallsCount.incrementAndGet();
+                            valid = solver.isSatisfiable(assumptions);
+                            if (valid) {
+                                recentWitnesses[nextWitness] = toWitness(solver.model(), featuresCount);
+                                nextWitness = (nextWitness + 1) % RECENT_WITNESSES;
+                            }
+                        }
+                        if (valid) {
+                            validSamplesCount.incrementAndGet();
+                            if (isWitnessed(literals, coveredTuples, products)) {
+                                coveredSamplesCount.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+
+        for (Future<Void> sampler : pool.invokeAll(samplers)) {
+            try {
+                sampler.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        return new CoverageEstimate(strength, getApproximateTuplesCount(featuresCount), samplesCount.get(),
+                validSamplesCount.get(), coveredSamplesCount.get(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the number of tuples of literals of the feature model, which
+     * may be too large to be enumerated.
+     * @param featuresCount the number of features of the feature model.
+     * @return the binomial coefficient C(2 * featuresCount, t).
+     */
+    private double getApproximateTuplesCount(int featuresCount) {
+        double count = 1;
+        for (int i = 0; i < strength; i++) {
+            count = count * (featuresCount * 2 - i) / (i + 1);
+        }
+        return Math.max(0, count);
+    }
+
+    /**
+     * Draw a tuple of distinct literal bit indices uniformly at random.
+     * @param random the random generator.
+     * @param nbLiterals the number of literals.
+     * @param indices the array receiving the bit indices, in increasing order.
+     */
+    private static void drawTuple(Random random, int nbLiterals, int[] indices) {
+        for (int i = 0; i < indices.length; i++) {
+            boolean drawn;
+            do {
+                indices[i] = random.nextInt(nbLiterals);
+                drawn = true;
+                for (int j = 0; j < i; j++) {
+                    drawn &= indices[j] != indices[i];
+                }
+            } while (!drawn);
+        }
+        Arrays.sort(indices);
+    }
+
+    /**
+     * Checks that a tuple does not hold the two literals of a feature.
+     * @param indices the bit indices of the literals of the tuple, in increasing order.
+     * @param literals the array receiving the literals of the tuple.
+     * @return true if the literals of the tuple belong to distinct features.
+     */
+    private static boolean isAllowedByIndices(int[] indices, int[] literals) {
+        for (int j = 0; j < indices.length; j++) {
+            literals[j] = Product.indexToLiteral(indices[j]);
+            // The two literals of a feature are stored at the indices 2k and 2k + 1.
+            if (j > 0 && (indices[j] ^ 1) == indices[j - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the complete models of the solver extending the valid
+     * configurations among the witnesses.
+     * @param featuresCount the number of features of the feature model.
+     * @return the products known to be valid.
+     * @throws Exception if the solver cannot be created or if a
+     * satisfiability check fails.
+     */
+    private List<Product> computeWitnesses(int featuresCount) throws Exception {
+        List<Product> validWitnesses = new ArrayList<Product>();
+        if (witnesses.isEmpty()) {
+            return validWitnesses;
+        }
+        ISolver solver = model.createSolver();
+        for (Product configuration : witnesses) {
+            satCallsCount.incrementAndGet();
+            if (solver.isSatisfiable(new VecInt(configuration.toModel()))) {
+                validWitnesses.add(toWitness(solver.model(), featuresCount));
+            }
+        }
+        return validWitnesses;
+    }
+
+    /**
+     * Compute the tuples covered by some products for the estimation, if
+     * their bit map holds in {@value #MAX_SAMPLED_WORDS} words, so that the
+     * sampled tuples are looked up instead of searched in the products.
+     * @param products the products to consider.
+     * @param featuresCount the number of features of the feature model.
+     * @return the set of the tuples covered by at least one product, or null
+     * if the bit map would be too large.
+     */
+    private TuplesSet computeSampledTuples(List<Product> products, int featuresCount) {
+        if (products.isEmpty() || getApproximateTuplesCount(featuresCount) > (double) MAX_SAMPLED_WORDS * BITS_PER_WORD) {
+            return null;
+        }
+        return computeCoveredTuples(products);
+    }
+
+    private static Product toWitness(int[] solverModel, int featuresCount) {
+        Product witness = new Product(featuresCount);
+        for (int literal : solverModel) {
+            if (Math.abs(literal) <= featuresCount) {
+                witness.add(literal);
+            }
+        }
+        return witness;
+    }
+
+    /**
+     * Check the tuples of a range of ranks and set the bits of the valid ones.
+     * @param solver the solver holding the constraints of the feature model.
+     * @param validPairs the valid pairs of the feature model.
+     * @param fromRank the first rank to check, at the start of a word.
+     * @param toRank the rank following the last one to check.
+     * @param bits the words of the range, with the tuples covered by the
+     * witnesses, receiving the valid tuples.
+     * @throws Exception if a satisfiability check fails.
+     */
+    private void checkTuples(ISolver solver, PairsSet validPairs, long fromRank, long toRank, long[] bits) throws Exception {
+        int featuresCount = model.getFeaturesList().size();
+        Product[] recentWitnesses = new Product[RECENT_WITNESSES];
+        int nextWitness = 0;
+        IVecInt assumptions = new VecInt(strength);
+        int[] indices = new int[strength];
+        int[] literals = new int[strength];
+        TuplesSet.unrank(fromRank, indices);
+        for (long rank = fromRank; rank < toRank; rank++, TuplesSet.next(indices)) {
+            if (!isAllowedByPairs(indices, literals, validPairs)) {
+                continue;
+            }
+            int bit = (int) (rank - fromRank);
+            if ((bits[bit / BITS_PER_WORD] & (1L << bit)) != 0) {
+                continue;
+            }
+            if (isWitnessed(literals, recentWitnesses)) {
+                bits[bit / BITS_PER_WORD] |= 1L << bit;
+                continue;
+            }
+            assumptions.clear();
+            for (int literal : literals) {
+                assumptions.push(literal);
+            }
+            satCallsCount.incrementAndGet();
+            if (solver.isSatisfiable(assumptions)) {
+                bits[bit / BITS_PER_WORD] |= 1L << bit;
+                recentWitnesses[nextWitness] = toWitness(solver.model(), featuresCount);
+                nextWitness = (nextWitness + 1) % RECENT_WITNESSES;
+            }
+        }
+    }
+
+    /**
+     * Checks that all the pairs of a tuple are valid.
+     * @param indices the bit indices of the literals of the tuple.
+     * @param literals the array receiving the literals of the tuple.
+     * @param validPairs the valid pairs of the feature model.
+     * @return true if no pair of the tuple is invalid.
+     */
+    private static boolean isAllowedByPairs(int[] indices, int[] literals, PairsSet validPairs) {
+        for (int j = 0; j < indices.length; j++) {
+            literals[j] = Product.indexToLiteral(indices[j]);
+            for (int i = 0; i < j; i++) {
+                if (!validPairs.contains(literals[i], literals[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWitnessed(int[] literals, Product[] witnesses) {
+        for (Product witness : witnesses) {
+            if (witness != null && containsAll(witness, literals)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWitnessed(int[] literals, TuplesSet tuples, List<Product> witnesses) {
+        return tuples != null ? tuples.contains(literals) : isWitnessed(literals, witnesses);
+    }
+
+    private static boolean isWitnessed(int[] literals, List<Product> witnesses) {
+        for (Product witness : witnesses) {
+            if (containsAll(witness, literals)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAll(Product product, int[] literals) {
+        for (int literal : literals) {
+            if (!product.contains(literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reportProgress(int doneShards, int shardsCount) {
+        if (progressListener != null) {
+            progressListener.progress(CURRENT_ACTION_SHARDS + doneShards + "/" + shardsCount, (int) (doneShards / (double) shardsCount * 100));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+/**
+ * This class holds an estimation of the t-wise coverage of products,
+ * obtained by checking random tuples of literals. The proportions of valid
+ * tuples among the sampled ones, and of covered tuples among the valid
+ * sampled ones, are given with their Wilson score intervals.
+ *
+ * @author agent
+ */
+public class CoverageEstimate {
+
+    /**
+     * The confidence level of the intervals.
+     */
+    public static final double CONFIDENCE_LEVEL = 0.95;
+    private static final double Z = 1.959963984540054;
+    private final int strength;
+    private final double tuplesCount;
+    private final long samplesCount;
+    private final long validSamplesCount;
+    private final long coveredSamplesCount;
+    private final long elapsedTimeMS;
+
+    /**
+     * Create an estimation of the coverage.
+     * @param strength the number of literals of the tuples.
+     * @param tuplesCount the number of tuples of literals of the feature model.
+     * @param samplesCount the number of sampled tuples.
+     * @param validSamplesCount the number of valid sampled tuples.
+     * @param coveredSamplesCount the number of valid sampled tuples covered by the products.
+     * @param elapsedTimeMS the duration of the sampling in ms.
+     */
+    public CoverageEstimate(int strength, double tuplesCount, long samplesCount, long validSamplesCount, long coveredSamplesCount, long elapsedTimeMS) {
+        this.strength = strength;
+        this.tuplesCount = tuplesCount;
+        this.samplesCount = samplesCount;
+        this.validSamplesCount = validSamplesCount;
+        this.coveredSamplesCount = coveredSamplesCount;
+        this.elapsedTimeMS = elapsedTimeMS;
+    }
+
+    /**
+     * Returns the Wilson score interval of a proportion.
+     * @param successes the number of successes.
+     * @param trials the number of trials.
+     * @return the lower and upper bounds of the interval.
+     */
+    public static double[] getWilsonInterval(long successes, long trials) {
+        if (trials == 0) {
+            return new double[]{0, 1};
+        }
+        double p = successes / (double) trials;
+        double z2n = Z * Z / trials;
+        double center = (p + z2n / 2) / (1 + z2n);
+        double halfWidth = Z * Math.sqrt(p * (1 - p) / trials + z2n / (4 * trials)) / (1 + z2n);
+        return new double[]{Math.max(0, center - halfWidth), Math.min(1, center + halfWidth)};
+    }
+
+    /**
+     * Returns the number of literals of the sampled tuples.
+     * @return the strength of the coverage.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Returns the number of tuples of literals of the feature model.
+     * @return the number of tuples the samples are drawn from.
+     */
+    public double getTuplesCount() {
+        return tuplesCount;
+    }
+
+    /**
+     * Returns the number of sampled tuples.
+     * @return the number of samples.
+     */
+    public long getSamplesCount() {
+        return samplesCount;
+    }
+
+    /**
+     * Returns the number of valid sampled tuples.
+     * @return the number of samples allowed by the feature model.
+     */
+    public long getValidSamplesCount() {
+        return validSamplesCount;
+    }
+
+    /**
+     * Returns the number of valid sampled tuples covered by the products.
+     * @return the number of covered samples.
+     */
+    public long getCoveredSamplesCount() {
+        return coveredSamplesCount;
+    }
+
+    /**
+     * Returns the duration of the sampling.
+     * @return the duration of the sampling in ms.
+     */
+    public long getElapsedTimeMS() {
+        return elapsedTimeMS;
+    }
+
+    /**
+     * Returns the estimated number of valid tuples of the feature model.
+     * @return the estimated number of valid tuples.
+     */
+    public double getValidTuplesEstimate() {
+        return samplesCount == 0 ? 0 : tuplesCount * validSamplesCount / samplesCount;
+    }
+
+    /**
+     * Returns the confidence interval of the number of valid tuples.
+     * @return the lower and upper bounds of the number of valid tuples.
+     */
+    public double[] getValidTuplesInterval() {
+        double[] interval = getWilsonInterval(validSamplesCount, samplesCount);
+        return new double[]{interval[0] * tuplesCount, interval[1] * tuplesCount};
+    }
+
+    /**
+     * Returns the estimated coverage of the products.
+     * @return the estimated proportion of valid tuples covered by the products.
+     */
+    public double getCoverage() {
+        return validSamplesCount == 0 ? 0 : coveredSamplesCount / (double) validSamplesCount;
+    }
+
+    /**
+     * Returns the confidence interval of the coverage of the products.
+     * @return the lower and upper bounds of the coverage.
+     */
+    public double[] getCoverageInterval() {
+        return getWilsonInterval(coveredSamplesCount, validSamplesCount);
+    }
+}
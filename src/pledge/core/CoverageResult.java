@@ -0,0 +1,201 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class holds the t-wise coverage of a list of products: the covered
+ * tuples and the gain of each product, the valid tuples of the feature
+ * model when they are known, and the duration of the computations.
+ *
+ * @author agent
+ */
+public class CoverageResult {
+
+    private static final int CHUNK_WORDS = 1024;
+    private final CoverageTracker tracker;
+    private final TuplesSet validTuples;
+    private final long coveredTimeMS;
+    private final long validTimeMS;
+
+    /**
+     * Create a coverage result.
+     * @param tracker the tracker of the coverage of the products.
+     * @param validTuples the valid tuples of the feature model, or null if they are unknown.
+     * @param coveredTimeMS the duration of the computation of the covered tuples in ms.
+     * @param validTimeMS the duration of the computation of the valid tuples in ms.
+     */
+    public CoverageResult(CoverageTracker tracker, TuplesSet validTuples, long coveredTimeMS, long validTimeMS) {
+        this.tracker = tracker;
+        this.validTuples = validTuples;
+        this.coveredTimeMS = coveredTimeMS;
+        this.validTimeMS = validTimeMS;
+    }
+
+    /**
+     * Returns the number of literals of the tuples.
+     * @return the strength of the coverage.
+     */
+    public int getStrength() {
+        return tracker.getStrength();
+    }
+
+    /**
+     * Returns the tracker of the coverage, giving the coverage curve.
+     * @return the tracker of the coverage of the products.
+     */
+    public CoverageTracker getCoverageTracker() {
+        return tracker;
+    }
+
+    /**
+     * Returns the tuples covered by the products.
+     * @return the set of the covered tuples.
+     */
+    public TuplesSet getCoveredTuples() {
+        return tracker.getCoveredTuples();
+    }
+
+    /**
+     * Returns the valid tuples of the feature model.
+     * @return the set of the valid tuples, or null if they are unknown.
+     */
+    public TuplesSet getValidTuples() {
+        return validTuples;
+    }
+
+    /**
+     * Returns the number of tuples covered by the products.
+     * @return the number of covered tuples.
+     */
+    public long getCoveredCount() {
+        return tracker.getCoveredCount();
+    }
+
+    /**
+     * Returns the number of valid tuples of the feature model.
+     * @return the number of valid tuples, or -1 if it is unknown.
+     */
+    public long getValidCount() {
+        return validTuples == null ? -1 : validTuples.size();
+    }
+
+    /**
+     * Returns the coverage of the products.
+     * @return the number of covered tuples divided by the number of valid
+     * tuples, or NaN if the valid tuples are unknown.
+     */
+    public double getCoverage() {
+        return validTuples == null ? Double.NaN : getCoveredCount() / (double) validTuples.size();
+    }
+
+    /**
+     * Returns the number of tuples covered by each product and not by the
+     * previous ones.
+     * @return an array whose i-th element is the marginal gain of the i-th product.
+     */
+    public long[] getMarginalGains() {
+        return tracker.getMarginalGains();
+    }
+
+    /**
+     * Returns the duration of the computation of the covered tuples.
+     * @return the duration in ms.
+     */
+    public long getCoveredTimeMS() {
+        return coveredTimeMS;
+    }
+
+    /**
+     * Returns the duration of the computation of the valid tuples.
+     * @return the duration in ms.
+     */
+    public long getValidTimeMS() {
+        return validTimeMS;
+    }
+
+    /**
+     * Returns the valid tuples which are not covered by the products. They
+     * are enumerated lazily, in the order of their ranks.
+     * @return the signed literals of each uncovered tuple.
+     */
+    public Iterable<int[]> getUncoveredTuples() {
+        if (validTuples == null) {
+            throw new IllegalStateException("The valid tuples are unknown");
+        }
+        return new Iterable<int[]>() {
+
+            @Override
+            public Iterator<int[]> iterator() {
+                return new UncoveredTuplesIterator();
+            }
+        };
+    }
+
+    private class UncoveredTuplesIterator implements Iterator<int[]> {
+
+        private final int wordsCount = validTuples.getWordsCount();
+        private long[] validWords = new long[0];
+        private long[] coveredWords = new long[0];
+        private int chunkStart = 0;
+        private int wordIndex = -1;
+        private long word = 0;
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                wordIndex++;
+                if (chunkStart + wordIndex >= wordsCount) {
+                    return false;
+                }
+                if (wordIndex == validWords.length) {
+                    chunkStart += validWords.length;
+                    wordIndex = 0;
+                    int chunkEnd = Math.min(wordsCount, chunkStart + CHUNK_WORDS);
+                    validWords = validTuples.getWords(chunkStart, chunkEnd);
+                    coveredWords = getCoveredTuples().getWords(chunkStart, chunkEnd);
+                }
+                word = validWords[wordIndex] & ~coveredWords[wordIndex];
+            }
+            return true;
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long rank = ((long) (chunkStart + wordIndex) << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            int[] literals = new int[getStrength()];
+            TuplesSet.unrank(rank, literals);
+            for (int i = 0; i < literals.length; i++) {
+                literals[i] = Product.indexToLiteral(literals[i]);
+            }
+            return literals;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
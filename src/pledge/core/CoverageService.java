@@ -0,0 +1,104 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.List;
+
+/**
+ * This class computes the coverage of products without changing the state
+ * observed by the views: the progress is only given to an optional
+ * {@link ProgressListener}. It reads the feature model currently loaded in
+ * a {@link ModelPLEDGE}, and several threads may use it concurrently.
+ *
+ * @author agent
+ */
+public class CoverageService {
+
+    private static final String CURRENT_ACTION_PRODUCT_TUPLES = "Computing the tuples covered by the products... product ";
+    private final ModelPLEDGE model;
+    private ProgressListener progressListener;
+
+    /**
+     * Create a coverage service for the feature model currently loaded.
+     * @param model the model of the application.
+     */
+    public CoverageService(ModelPLEDGE model) {
+        this.model = model;
+    }
+
+    /**
+     * Set the listener notified of the progress of the computations.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Compute the t-wise coverage of products. The valid tuples are computed
+     * if a feature model is loaded.
+     * @param products the products, in the order of the coverage curve.
+     * @param strength the number of literals of the tuples (t).
+     * @return the coverage of the products.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public CoverageResult computeCoverage(List<Product> products, int strength) throws Exception {
+        CoverageCalculator calculator = new CoverageCalculator(model, strength);
+        calculator.setProgressListener(progressListener);
+        calculator.addWitnesses(products);
+
+        long start = System.currentTimeMillis();
+        CoverageTracker tracker = new CoverageTracker(calculator.createTuplesSet());
+        int i = 0;
+        for (Product product : products) {
+            if (progressListener != null) {
+                progressListener.progress(CURRENT_ACTION_PRODUCT_TUPLES + i, (int) (i / (double) products.size() * 100));
+            }
+            tracker.addProduct(product);
+            i++;
+        }
+        long coveredTimeMS = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        TuplesSet validTuples = null;
+        if (model.getSolver() != null) {
+            validTuples = calculator.computeValidTuples();
+            tracker.setValidTuplesCount(validTuples.size());
+        }
+        return new CoverageResult(tracker, validTuples, coveredTimeMS, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Estimate the t-wise coverage of products from random tuples.
+     * @param products the products to consider.
+     * @param strength the number of literals of the tuples (t).
+     * @param maxSamples the maximum number of sampled tuples, or 0 for no limit.
+     * @param maxTimeMS the maximum duration of the sampling in ms, or 0 for no limit.
+     * @return the estimation of the coverage of the products.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public CoverageEstimate estimateCoverage(List<Product> products, int strength, long maxSamples, long maxTimeMS) throws Exception {
+        CoverageCalculator calculator = new CoverageCalculator(model, strength);
+        calculator.setProgressListener(progressListener);
+        calculator.addWitnesses(products);
+        return calculator.estimateCoverage(products, maxSamples, maxTimeMS);
+    }
+}
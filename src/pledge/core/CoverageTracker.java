@@ -0,0 +1,176 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.Arrays;
+
+/**
+ * This class follows the coverage of a list of products, consumed in order.
+ * The tuples covered by each product are added to a {@link TuplesSet}, and
+ * the number of covered tuples after each product gives the coverage curve
+ * of the list. The area under this curve measures how fast a prioritized
+ * list covers the tuples.
+ *
+ * @author agent
+ */
+public class CoverageTracker {
+
+    private final TuplesSet tuples;
+    private long[] coveredCounts;
+    private int productsCount;
+    private long validTuplesCount;
+
+    /**
+     * Create a tracker of the coverage.
+     * @param tuples the empty set receiving the covered tuples.
+     */
+    public CoverageTracker(TuplesSet tuples) {
+        this.tuples = tuples;
+        coveredCounts = new long[16];
+        productsCount = 0;
+        validTuplesCount = -1;
+    }
+
+    /**
+     * Adds the next product of the list.
+     * @param product the product to consider.
+     * @return the number of tuples covered by this product and not by the
+     * previous ones.
+     */
+    public long addProduct(Product product) {
+        long gain = tuples.addProduct(product);
+        if (productsCount == coveredCounts.length) {
+            coveredCounts = Arrays.copyOf(coveredCounts, productsCount * 2);
+        }
+        coveredCounts[productsCount++] = tuples.size();
+        return gain;
+    }
+
+    /**
+     * Returns the number of literals of the tracked tuples.
+     * @return the strength of the coverage.
+     */
+    public int getStrength() {
+        return tuples.getStrength();
+    }
+
+    /**
+     * Returns the tuples covered by the products added so far.
+     * @return the set of the covered tuples.
+     */
+    public TuplesSet getCoveredTuples() {
+        return tuples;
+    }
+
+    /**
+     * Returns the number of products added so far.
+     * @return the number of products.
+     */
+    public int getProductsCount() {
+        return productsCount;
+    }
+
+    /**
+     * Returns the number of tuples covered by the products added so far.
+     * @return the number of covered tuples.
+     */
+    public long getCoveredCount() {
+        return tuples.size();
+    }
+
+    /**
+     * Returns the number of valid tuples of the feature model.
+     * @return the number of valid tuples, or -1 if it is unknown.
+     */
+    public long getValidTuplesCount() {
+        return validTuplesCount;
+    }
+
+    /**
+     * Set the number of valid tuples of the feature model, used as the
+     * reference of the coverage. When it is unknown, the tuples covered by
+     * all the products are used instead.
+     * @param validTuplesCount the number of valid tuples, or -1 if it is unknown.
+     */
+    public void setValidTuplesCount(long validTuplesCount) {
+        this.validTuplesCount = validTuplesCount;
+    }
+
+    /**
+     * Returns the number of covered tuples after each product.
+     * @return an array whose i-th element is the number of tuples covered by
+     * the first i + 1 products.
+     */
+    public long[] getCoveredCounts() {
+        return Arrays.copyOf(coveredCounts, productsCount);
+    }
+
+    /**
+     * Returns the number of tuples covered by each product and not by the
+     * previous ones.
+     * @return an array whose i-th element is the marginal gain of the i-th product.
+     */
+    public long[] getMarginalGains() {
+        long[] gains = new long[productsCount];
+        for (int i = 0; i < productsCount; i++) {
+            gains[i] = coveredCounts[i] - (i > 0 ? coveredCounts[i - 1] : 0);
+        }
+        return gains;
+    }
+
+    /**
+     * Returns the coverage after each product.
+     * @return an array whose i-th element is the coverage (between 0 and 1)
+     * of the first i + 1 products.
+     */
+    public double[] getCurve() {
+        long reference = validTuplesCount >= 0 ? validTuplesCount : tuples.size();
+        double[] curve = new double[productsCount];
+        for (int i = 0; i < productsCount; i++) {
+            curve[i] = reference == 0 ? 1 : coveredCounts[i] / (double) reference;
+        }
+        return curve;
+    }
+
+    /**
+     * Returns the area under the coverage curve, i.e. the mean coverage of
+     * the prefixes of the list.
+     * @return the normalized area, between 0 and 1.
+     */
+    public double getArea() {
+        double area = 0;
+        for (double coverage : getCurve()) {
+            area += coverage;
+        }
+        return productsCount == 0 ? 0 : area / productsCount;
+    }
+
+    /**
+     * Returns the APFD (Average Percentage of Faults Detected) of the list,
+     * where each tuple is a fault detected by the first product covering it.
+     * It is 1 - (TF1 + ... + TFm) / (n * m) + 1 / (2 * n), where TFi is the
+     * position of the first product covering the i-th of the m tuples, and
+     * n is the number of products. A tuple which is not covered counts as
+     * detected after the last product.
+     * @return the APFD of the list.
+     */
+    public double getAPFD() {
+        return productsCount == 0 ? 0 : getArea() - 1 / (2.0 * productsCount);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import org.sat4j.core.VecInt;
+import org.sat4j.reader.ParseFormatException;
+
+/**
+ * This class reads the clauses of a feature model in the DIMACS format. The
+ * literals of the file are read as a single stream: each clause ends with a
+ * 0, so that a line may hold several clauses and a clause may span several
+ * lines. The lines starting with "c" are comments, and a line starting with
+ * "%" ends the clauses (SATLIB format).
+ *
+ * @author agent
+ */
+public class DimacsClausesReader {
+
+    private int variablesCount;
+    private int expectedClausesCount;
+    private int clausesCount;
+    private final List<int[]> clauses;
+
+    /**
+     * Create a reader of DIMACS clauses.
+     */
+    public DimacsClausesReader() {
+        variablesCount = 0;
+        expectedClausesCount = -1;
+        clausesCount = 0;
+        clauses = new ArrayList<int[]>();
+    }
+
+    /**
+     * Read the clauses of a DIMACS file. The empty clauses are kept, so that
+     * the solvers created from the clauses reject the unsatisfiable CNF.
+     * @param reader the reader of the file.
+     * @throws IOException if the file cannot be read.
+     * @throws ParseFormatException if the file is not in the DIMACS format or
+     * if its number of clauses is not the one of its problem line.
+     */
+    public void read(Reader reader) throws IOException, ParseFormatException {
+        BufferedReader in = new BufferedReader(reader);
+        VecInt literals = new VecInt();
+        String line;
+        int lineNumber = 0;
+        try {
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.startsWith("c") || line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith("%")) {
+                    break;
+                }
+                StringTokenizer st = new StringTokenizer(line);
+                if (line.startsWith("p")) {
+                    st.nextToken();
+                    if (!st.hasMoreTokens() || !st.nextToken().equals("cnf") || st.countTokens() != 2) {
+                        throw new ParseFormatException("problem line expected (p cnf ...) on line " + lineNumber);
+                    }
+                    variablesCount = Integer.parseInt(st.nextToken());
+                    expectedClausesCount = Integer.parseInt(st.nextToken());
+                    continue;
+                }
+                if (expectedClausesCount < 0) {
+                    throw new ParseFormatException("problem line expected (p cnf ...) before line " + lineNumber);
+                }
+                while (st.hasMoreTokens()) {
+                    int literal = Integer.parseInt(st.nextToken());
+                    if (literal != 0) {
+                        literals.push(literal);
+                        variablesCount = Math.max(variablesCount, Math.abs(literal));
+                    } else {
+                        addClause(literals);
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ParseFormatException("integer expected on line " + lineNumber);
+        } finally {
+            in.close();
+        }
+        if (!literals.isEmpty()) {
+            // The last clause of the file may omit its 0.
+            addClause(literals);
+        }
+        if (expectedClausesCount < 0) {
+            throw new ParseFormatException("problem line expected (p cnf ...)");
+        }
+        if (clausesCount != expectedClausesCount) {
+            throw new ParseFormatException("wrong number of clauses: found " + clausesCount + ", " + expectedClausesCount + " expected");
+        }
+    }
+
+    private void addClause(VecInt literals) {
+        clausesCount++;
+        int[] clause = new int[literals.size()];
+        literals.copyTo(clause);
+        clauses.add(clause);
+        literals.clear();
+    }
+
+    /**
+     * Returns the number of variables of the clauses.
+     * @return the number of variables of the problem line, or more if a
+     * literal exceeds it.
+     */
+    public int getVariablesCount() {
+        return variablesCount;
+    }
+
+    /**
+     * Returns the clauses read.
+     * @return the signed literals of each clause, in the order of the file.
+     */
+    public List<int[]> getClauses() {
+        return clauses;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+
+/**
+ * This class represents the number of products of a feature model, computed
+ * exactly or estimated with a tolerance and a confidence.
+ *
+ * @author agent
+ */
+public class ModelCount {
+
+    private final BigInteger count;
+    private final boolean exact;
+    private final double tolerance;
+    private final double confidence;
+
+    /**
+     * Create an exact number of products.
+     * @param count the number of products.
+     */
+    public ModelCount(BigInteger count) {
+        this(count, true, 0, 1);
+    }
+
+    /**
+     * Create a number of products.
+     * @param count the number of products.
+     * @param exact true if the number is exact.
+     * @param tolerance the relative tolerance of an estimation: the number of
+     * products is between count / (1 + tolerance) and count * (1 + tolerance).
+     * @param confidence the probability that the number of products is within
+     * the tolerance.
+     */
+    public ModelCount(BigInteger count, boolean exact, double tolerance, double confidence) {
+        this.count = count;
+        this.exact = exact;
+        this.tolerance = tolerance;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Returns the number of products, or its estimation.
+     * @return the number of products.
+     */
+    public BigInteger getCount() {
+        return count;
+    }
+
+    /**
+     * Checks if the number of products is exact.
+     * @return true if the number is exact, false if it is an estimation.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Returns the relative tolerance of the estimation.
+     * @return the tolerance, 0 if the number is exact.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Returns the probability that the number of products is within the tolerance.
+     * @return the confidence, 1 if the number is exact.
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        if (exact) {
+            return count.toString();
+        }
+        DecimalFormat format = new DecimalFormat("#.##");
+        return "~" + count + " (within a factor " + format.format(1 + tolerance) + " with probability " + format.format(confidence) + ")";
+    }
+}
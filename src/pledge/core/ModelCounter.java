@@ -0,0 +1,555 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.ModelIterator;
+
+/**
+ * This class counts the products of a feature model, i.e. the assignments
+ * of the variables of its clauses which satisfy them. The exact count is a
+ * DPLL search which splits the clauses into independent components and
+ * caches the number of assignments of each component. If it does not end
+ * in time, the count is estimated by hashing (the ApproxMC algorithm of
+ * Chakraborty, Meel and Vardi): random XOR constraints split the products
+ * into cells, and the products of a small cell are enumerated by the solver.
+ *
+ * @author agent
+ */
+public class ModelCounter {
+
+    public static final long DEFAULT_TIMEOUT_MS = 5000;
+    public static final double DEFAULT_TOLERANCE = 0.8;
+    public static final double DEFAULT_CONFIDENCE = 0.8;
+    private static final int MAX_CACHE_SIZE = 1 << 20;
+    private final ModelPLEDGE model;
+    private final CompiledCNF cnf;
+    private long timeoutMS = DEFAULT_TIMEOUT_MS;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private double confidence = DEFAULT_CONFIDENCE;
+    private Random random = new Random();
+    /* The state of the exact count: the value of each variable (0 if it is
+     * not assigned), the index of the variables of the current clauses, the
+     * counts of the components already seen. */
+    private int[] values;
+    private int[] indices;
+    private Map<Component, BigInteger> cache;
+    private long deadline;
+    private long nodesCount;
+
+    /**
+     * Create a counter of the products of the feature model currently loaded.
+     * @param model the model of the application.
+     */
+    public ModelCounter(ModelPLEDGE model) {
+        this.model = model;
+        this.cnf = model.getCompiledCNF();
+    }
+
+    /**
+     * Returns the time allowed to each of the exact count and the estimation.
+     * @return the maximum duration in ms.
+     */
+    public long getTimeoutMS() {
+        return timeoutMS;
+    }
+
+    /**
+     * Specifies the time allowed to each of the exact count and the estimation.
+     * @param timeoutMS the maximum duration in ms.
+     */
+    public void setTimeoutMS(long timeoutMS) {
+        this.timeoutMS = timeoutMS;
+    }
+
+    /**
+     * Specifies the guarantees of the estimation.
+     * @param tolerance the relative tolerance of the estimation.
+     * @param confidence the probability that the number of products is within the tolerance.
+     */
+    public void setGuarantees(double tolerance, double confidence) {
+        if (tolerance <= 0 || confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("The tolerance must be positive and the confidence between 0 and 1");
+        }
+        this.tolerance = tolerance;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Specifies the random generator of the XOR constraints of the estimation.
+     * @param random the random generator.
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Count the products exactly, or estimate their number if the exact
+     * count does not end in time.
+     * @return the number of products of the feature model.
+     * @throws TimeoutException if the estimation does not end in time either.
+     * @throws Exception if the solver fails.
+     */
+    public ModelCount count() throws Exception {
+        try {
+            return new ModelCount(countExact());
+        } catch (TimeoutException e) {
+            return countApproximate();
+        }
+    }
+
+    /**
+     * Count the products exactly.
+     * @return the number of products of the feature model.
+     * @throws TimeoutException if the count does not end in time.
+     */
+    public BigInteger countExact() throws TimeoutException {
+        deadline = System.currentTimeMillis() + timeoutMS;
+        nodesCount = 0;
+        int variablesCount = cnf.getVariablesCount();
+        values = new int[variablesCount + 1];
+        indices = new int[variablesCount + 1];
+        cache = new HashMap<Component, BigInteger>();
+        List<int[]> clauses = new ArrayList<int[]>(cnf.getClausesCount());
+        for (int i = 0; i < cnf.getClausesCount(); i++) {
+            clauses.add(cnf.getClause(i));
+        }
+        try {
+            return count(clauses, variablesCount);
+        } finally {
+            values = null;
+            indices = null;
+            cache = null;
+        }
+    }
+
+    /**
+     * Returns the number of assignments of some variables satisfying some
+     * clauses. The variables which are not assigned when the method is called
+     * are not assigned when it returns.
+     * @param clauses the clauses, on unassigned variables only.
+     * @param variablesCount the number of variables, including the ones
+     * which do not appear in the clauses.
+     */
+    private BigInteger count(List<int[]> clauses, int variablesCount) throws TimeoutException {
+        if ((++nodesCount & 0xFF) == 0 && System.currentTimeMillis() > deadline) {
+            throw new TimeoutException("The exact count of the products exceeds " + timeoutMS + " ms");
+        }
+        List<Integer> trail = new ArrayList<Integer>();
+        try {
+            List<int[]> reduced = propagate(clauses, trail);
+            if (reduced == null) {
+                return BigInteger.ZERO;
+            }
+            // Index the variables of the remaining clauses.
+            int[] variables = new int[variablesCount];
+            int n = 0;
+            for (int[] clause : reduced) {
+                for (int literal : clause) {
+                    int variable = Math.abs(literal);
+                    if (values[variable] == 0) {
+                        values[variable] = 2;
+                        indices[variable] = n;
+                        variables[n++] = variable;
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                values[variables[i]] = 0;
+            }
+            BigInteger result = BigInteger.ONE.shiftLeft(variablesCount - trail.size() - n);
+            for (List<int[]> component : getComponents(reduced, variables, n)) {
+                result = result.multiply(countComponent(component));
+                if (result.signum() == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            for (int variable : trail) {
+                values[variable] = 0;
+            }
+        }
+    }
+
+    /**
+     * Assign the unit literals until none remains.
+     * @param trail the list receiving the assigned variables.
+     * @return the clauses which are not satisfied, without their false
+     * literals, or null if a clause is false.
+     */
+    private List<int[]> propagate(List<int[]> clauses, List<Integer> trail) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            List<int[]> remaining = new ArrayList<int[]>(clauses.size());
+            for (int[] clause : clauses) {
+                int unassigned = 0;
+                int last = 0;
+                boolean satisfied = false;
+                for (int literal : clause) {
+                    int value = values[Math.abs(literal)];
+                    if (value == 0) {
+                        unassigned++;
+                        last = literal;
+                    } else if (value == Integer.signum(literal)) {
+                        satisfied = true;
+                        break;
+                    }
+                }
+                if (satisfied) {
+                    continue;
+                }
+                if (unassigned == 0) {
+                    return null;
+                }
+                if (unassigned == 1) {
+                    values[Math.abs(last)] = Integer.signum(last);
+                    trail.add(Math.abs(last));
+                    changed = true;
+                } else {
+                    remaining.add(clause);
+                }
+            }
+            clauses = remaining;
+        }
+        List<int[]> reduced = new ArrayList<int[]>(clauses.size());
+        for (int[] clause : clauses) {
+            int[] literals = new int[clause.length];
+            int n = 0;
+            for (int literal : clause) {
+                if (values[Math.abs(literal)] == 0) {
+                    literals[n++] = literal;
+                }
+            }
+            literals = Arrays.copyOf(literals, n);
+            Arrays.sort(literals);
+            reduced.add(literals);
+        }
+        return reduced;
+    }
+
+    /**
+     * Split clauses into groups which do not share variables.
+     * @param variables the variables of the clauses, indexed by {@link #indices}.
+     * @param n the number of variables.
+     */
+    private List<List<int[]>> getComponents(List<int[]> clauses, int[] variables, int n) {
+        int[] parents = new int[n];
+        for (int i = 0; i < n; i++) {
+            parents[i] = i;
+        }
+        for (int[] clause : clauses) {
+            int root = find(parents, indices[Math.abs(clause[0])]);
+            for (int j = 1; j < clause.length; j++) {
+                int other = find(parents, indices[Math.abs(clause[j])]);
+                parents[other] = root;
+            }
+        }
+        Map<Integer, List<int[]>> components = new HashMap<Integer, List<int[]>>();
+        for (int[] clause : clauses) {
+            int root = find(parents, indices[Math.abs(clause[0])]);
+            List<int[]> component = components.get(root);
+            if (component == null) {
+                component = new ArrayList<int[]>();
+                components.put(root, component);
+            }
+            component.add(clause);
+        }
+        return new ArrayList<List<int[]>>(components.values());
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of assignments of the variables of a component
+     * satisfying its clauses, branching on its most frequent variable.
+     */
+    private BigInteger countComponent(List<int[]> clauses) throws TimeoutException {
+        Component key = new Component(clauses);
+        BigInteger result = cache.get(key);
+        if (result != null) {
+            return result;
+        }
+        Map<Integer, Integer> occurrences = new HashMap<Integer, Integer>();
+        int branch = 0;
+        int maxOccurrences = 0;
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                int variable = Math.abs(literal);
+                Integer count = occurrences.get(variable);
+                count = count == null ? 1 : count + 1;
+                occurrences.put(variable, count);
+                if (count > maxOccurrences) {
+                    maxOccurrences = count;
+                    branch = variable;
+                }
+            }
+        }
+        List<int[]> positive = new ArrayList<int[]>(clauses);
+        positive.add(new int[]{branch});
+        List<int[]> negative = new ArrayList<int[]>(clauses);
+        negative.add(new int[]{-branch});
+        result = count(positive, occurrences.size()).add(count(negative, occurrences.size()));
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, result);
+        return result;
+    }
+
+    /**
+     * Estimate the number of products with the ApproxMC algorithm.
+     * @return the estimated number of products, or the exact one if there
+     * are few products.
+     * @throws TimeoutException if the estimation does not end in time.
+     * @throws Exception if the solver fails.
+     */
+    public ModelCount countApproximate() throws Exception {
+        long end = System.currentTimeMillis() + timeoutMS;
+        int threshold = (int) Math.ceil(1 + 9.84 * (1 + tolerance / (1 + tolerance)) * Math.pow(1 + 1 / tolerance, 2));
+        int iterations = (int) Math.ceil(17 * Math.log(3 / (1 - confidence)) / Math.log(2));
+        int variablesCount = cnf.getVariablesCount();
+        int[][] xors = new int[variablesCount][];
+        long count = countSolutions(xors, 0, threshold, end);
+        if (count < threshold) {
+            return new ModelCount(BigInteger.valueOf(count));
+        }
+        List<BigInteger> estimates = new ArrayList<BigInteger>(iterations);
+        int previous = 1;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            // Nested XOR constraints: the cells shrink as constraints are added.
+            for (int i = 0; i < variablesCount; i++) {
+                xors[i] = randomXor(variablesCount);
+            }
+            Map<Integer, Long> counts = new HashMap<Integer, Long>();
+            counts.put(0, count);
+            int m = findCellSize(xors, previous, threshold, end, counts);
+            if (m > 0 && counts.get(m) > 0) {
+                estimates.add(BigInteger.valueOf(counts.get(m)).shiftLeft(m));
+                previous = m;
+            }
+        }
+        if (estimates.isEmpty()) {
+            throw new TimeoutException("No cell of the products could be enumerated");
+        }
+        Collections.sort(estimates);
+        return new ModelCount(estimates.get(estimates.size() / 2), false, tolerance, confidence);
+    }
+
+    /**
+     * Returns the smallest number of XOR constraints leaving less than
+     * threshold products, searching from the one of the previous iteration
+     * (ApproxMC2): the number of products does not increase with the number
+     * of constraints since they are nested.
+     * @param counts the number of products of each number of constraints
+     * already enumerated.
+     * @return the number of constraints, or 0 if all of them leave too many products.
+     */
+    private int findCellSize(int[][] xors, int start, int threshold, long end, Map<Integer, Long> counts) throws Exception {
+        int low = 0;
+        int high;
+        // Gallop from the previous size to bracket the smallest size.
+        int m = Math.min(start, xors.length);
+        if (getCount(xors, m, threshold, end, counts) < threshold) {
+            high = m;
+            for (int step = 1; m - step > low; step *= 2) {
+                if (getCount(xors, m - step, threshold, end, counts) >= threshold) {
+                    low = m - step;
+                    break;
+                }
+                high = m - step;
+            }
+        } else {
+            low = m;
+            for (int step = 1;; step *= 2) {
+                int next = Math.min(m + step, xors.length);
+                if (getCount(xors, next, threshold, end, counts) < threshold) {
+                    high = next;
+                    break;
+                }
+                if (next == xors.length) {
+                    return 0;
+                }
+                low = next;
+            }
+        }
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (getCount(xors, middle, threshold, end, counts) < threshold) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+        return high;
+    }
+
+    private long getCount(int[][] xors, int m, int threshold, long end, Map<Integer, Long> counts) throws Exception {
+        Long count = counts.get(m);
+        if (count == null) {
+            count = countSolutions(xors, m, threshold, end);
+            counts.put(m, count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns a random XOR constraint, whose variables are drawn with a
+     * probability of 1/2. The first element is the parity of the constraint
+     * (1 or 0), the other ones are its variables.
+     */
+    private int[] randomXor(int variablesCount) {
+        int[] xor = new int[variablesCount + 1];
+        int n = 1;
+        xor[0] = random.nextBoolean() ? 1 : 0;
+        for (int variable = 1; variable <= variablesCount; variable++) {
+            if (random.nextBoolean()) {
+                xor[n++] = variable;
+            }
+        }
+        return Arrays.copyOf(xor, n);
+    }
+
+    /**
+     * Enumerate the products satisfying the first XOR constraints, up to a limit.
+     * @return the number of products, at most limit.
+     */
+    private long countSolutions(int[][] xors, int m, int limit, long end) throws Exception {
+        ISolver solver = model.createSolver();
+        int auxiliaryCount = 0;
+        for (int i = 0; i < m; i++) {
+            auxiliaryCount += Math.max(xors[i].length - 2, 0);
+        }
+        int nextVariable = cnf.getVariablesCount() + 1;
+        solver.newVar(cnf.getVariablesCount() + auxiliaryCount);
+        try {
+            for (int i = 0; i < m; i++) {
+                nextVariable = addXor(solver, xors[i], nextVariable);
+            }
+        } catch (ContradictionException e) {
+            return 0;
+        }
+        ModelIterator iterator = new ModelIterator(solver);
+        iterator.setTimeoutMs(Math.max(end - System.currentTimeMillis(), 1));
+        long count = 0;
+        while (count < limit && iterator.isSatisfiable()) {
+            iterator.model();
+            count++;
+            if (System.currentTimeMillis() > end) {
+                throw new TimeoutException("The estimation of the number of products exceeds " + timeoutMS + " ms");
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add a XOR constraint to a solver, as a chain of XORs of two literals
+     * defining auxiliary variables.
+     * @return the next auxiliary variable.
+     */
+    private static int addXor(ISolver solver, int[] xor, int nextVariable) throws ContradictionException {
+        boolean parity = xor[0] == 1;
+        if (xor.length == 1) {
+            if (parity) {
+                throw new ContradictionException("Empty XOR constraint with an odd parity");
+            }
+            return nextVariable;
+        }
+        int current = xor[1];
+        for (int i = 2; i < xor.length; i++) {
+            int variable = xor[i];
+            int next = nextVariable++;
+            // next <=> current XOR variable
+            solver.addClause(new VecInt(new int[]{-next, current, variable}));
+            solver.addClause(new VecInt(new int[]{-next, -current, -variable}));
+            solver.addClause(new VecInt(new int[]{next, -current, variable}));
+            solver.addClause(new VecInt(new int[]{next, current, -variable}));
+            current = next;
+        }
+        solver.addClause(new VecInt(new int[]{parity ? current : -current}));
+        return nextVariable;
+    }
+
+    /**
+     * The clauses of a component, sorted so that equal components have the
+     * same key.
+     */
+    private static class Component {
+
+        private final int[] literals;
+        private final int hash;
+
+        Component(List<int[]> clauses) {
+            List<int[]> sorted = new ArrayList<int[]>(clauses);
+            Collections.sort(sorted, new Comparator<int[]>() {
+
+                @Override
+                public int compare(int[] c1, int[] c2) {
+                    int n = Math.min(c1.length, c2.length);
+                    for (int i = 0; i < n; i++) {
+                        if (c1[i] != c2[i]) {
+                            return Integer.compare(c1[i], c2[i]);
+                        }
+                    }
+                    return Integer.compare(c1.length, c2.length);
+                }
+            });
+            int size = 0;
+            for (int[] clause : sorted) {
+                size += clause.length + 1;
+            }
+            literals = new int[size];
+            int n = 0;
+            for (int[] clause : sorted) {
+                System.arraycopy(clause, 0, literals, n, clause.length);
+                n += clause.length + 1;
+            }
+            hash = Arrays.hashCode(literals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Component && Arrays.equals(literals, ((Component) obj).literals);
+        }
+    }
+}
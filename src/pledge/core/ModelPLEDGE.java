@@ -25,30 +25,27 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
-import java.util.Set;
+import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import org.sat4j.core.VecInt;
-import org.sat4j.minisat.SolverFactory;
-import org.sat4j.minisat.core.IOrder;
 import org.sat4j.minisat.core.Solver;
-import org.sat4j.minisat.orders.RandomLiteralSelectionStrategy;
-import org.sat4j.minisat.orders.RandomWalkDecorator;
-import org.sat4j.minisat.orders.VarOrderHeap;
-import org.sat4j.reader.DimacsReader;
 import org.sat4j.specs.IConstr;
 import org.sat4j.specs.ISolver;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
-import org.sat4j.tools.ModelIterator;
 import pledge.core.techniques.generation.EvolutionaryAlgorithm1Plus1;
 import pledge.core.techniques.generation.GenerationTechnique;
+import pledge.core.techniques.generation.IslandEvolutionaryAlgorithm;
 import pledge.core.techniques.prioritization.PrioritizationTechnique;
 import pledge.core.techniques.prioritization.SimilarityGreedy;
 import pledge.core.techniques.prioritization.SimilarityNearOptimal;
@@ -68,22 +65,19 @@ import splar.plugins.reasoners.sat.sat4j.ReasoningWithSAT;
 public class ModelPLEDGE extends Observable {
 
     private static final int SAT_TIMEOUT = 1000;
-    private static final int ITERATOR_TIMEOUT = 150000;
     private static final String solverName = "MiniSAT";
     public static final String OR = "   OR   ";
     public static final String NOT = "! ";
-    private static final IOrder order = new RandomWalkDecorator(new VarOrderHeap(new RandomLiteralSelectionStrategy()), 1);
     private static final String GLOBAL_ACTION_LOAD_FM = "Loading the Feature Model";
     private static final String GLOBAL_ACTION_LOAD_PRODUCTS = "Loading Products";
     private static final String GLOBAL_ACTION_GENERATING_PRODUCTS = "Generating products";
     private static final String GLOBAL_ACTION_PRIORITIZING_PRODUCTS = "Prioritizing products";
     private static final String GLOBAL_ACTION_COVERAGE = "Computing the coverage";
+    private static final String GLOBAL_ACTION_COUNTING_PRODUCTS = "Counting the products";
     private static final String CURRENT_ACTION_LOAD_CONSTRAINTS = "Loading the constraints...";
     private static final String CURRENT_ACTION_EXTRACT_FEATURES = "Extracting the features...";
     private static final String CURRENT_ACTION_EXTRACT_CONSTRAINTS = "Extracting the constraints...";
     private static final String CURRENT_ACTION_FINDING_CORE_DEAD_FEATURES = "Finding core and dead features...";
-    private static final String CURRENT_ACTION_MODEL_PAIRS = "Computing the valid pairs of the model...";
-    private static final String CURRENT_ACTION_PRODUCT_PAIRS = "Computing the pairs covered by the products...";
     private static final String CORE_FEATURE = "Core";
     private static final String DEAD_FEATURE = "Dead";
     private static final String FREE_FEATURE = "Free";
@@ -100,12 +94,14 @@ public class ModelPLEDGE extends Observable {
         SPLOT, DIMACS
     };
     private Solver solver;
-    private ISolver solverIterator;
+    private ProductsGenerator productsGenerator;
     private List<Integer> featuresIntList;
     private List<String> featuresList;
     private Map<String, Integer> namesToFeaturesInt;
     private List<String> featureModelConstraints;
     private List<String> featureModelConstraintsString;
+    private List<int[]> featureModelClauses;
+    private CompiledCNF compiledCNF;
     private FeatureModelFormat featureModelFormat;
     private String featureModelName;
     private boolean running, indeterminate;
@@ -119,20 +115,40 @@ public class ModelPLEDGE extends Observable {
     private PrioritizationTechnique prioritizationTechnique;
     private long generationTimeMSAllowed = 60000;
     private int nbProductsToGenerate = 10;
-    private String fmPath;
     private int currentConstraint = -1;
+    private long distancesHeapBudget = getDefaultDistancesHeapBudget();
+    private boolean distancesFloatPrecision = false;
+    private String distancesSpillDirectory = null;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean incrementalEvaluation = true;
+    private boolean uniformSampling = false;
+    private long seed = new Random().nextLong();
+    private SplittableRandom seeds = new SplittableRandom(seed);
+    private BinaryDecisionDiagram binaryDecisionDiagram = null;
+    private ModelCount productsCount = null;
+    private long countingTimeoutMS = ModelCounter.DEFAULT_TIMEOUT_MS;
+    /* The numbers of products of the feature models already counted, by hash
+     * of their clauses. */
+    private static final Map<String, ModelCount> productsCounts = new ConcurrentHashMap<String, ModelCount>();
+    private int coverageStrength = 2;
+    private String validTuplesCacheDirectory = null;
+    private ForkJoinPool forkJoinPool = null;
 
     /**
      * Creates the model of the application.
      */
     public ModelPLEDGE() {
         solver = null;
-        solverIterator = null;
+        productsGenerator = null;
         featuresIntList = new ArrayList<Integer>();
         featuresList = new ArrayList<String>();
         namesToFeaturesInt = new HashMap<String, Integer>();
         featureModelConstraints = new ArrayList<String>();
         featureModelConstraintsString = new ArrayList<String>();
+        featureModelClauses = new ArrayList<int[]>();
+        compiledCNF = null;
+        binaryDecisionDiagram = null;
+        productsCount = null;
         coreFeatures = new ArrayList<String>();
         deadFeatures = new ArrayList<String>();
         products = null;
@@ -141,6 +157,7 @@ public class ModelPLEDGE extends Observable {
         progress = 0;
         generationTechniques = new ArrayList<GenerationTechnique>();
         generationTechniques.add(new EvolutionaryAlgorithm1Plus1());
+        generationTechniques.add(new IslandEvolutionaryAlgorithm());
         generationTechnique = generationTechniques.get(0);
         prioritizationTechniques = new ArrayList<PrioritizationTechnique>();
         prioritizationTechniques.add(new SimilarityGreedy());
@@ -204,6 +221,23 @@ public class ModelPLEDGE extends Observable {
         return featureModelConstraintsString;
     }
 
+    /**
+     * Returns the clauses of the feature model.
+     * @return a list containing the signed literals of each clause of the feature model.
+     */
+    public List<int[]> getFeatureModelClauses() {
+        return featureModelClauses;
+    }
+
+    /**
+     * Returns the compiled clauses of the feature model.
+     * @return the clauses used to create the solvers of the feature model, or
+     * null if no feature model is loaded.
+     */
+    public CompiledCNF getCompiledCNF() {
+        return compiledCNF;
+    }
+
     /**
      * Returns the SAT solver.
      * @return the SAT solver asosciated to this model.
@@ -246,6 +280,216 @@ public class ModelPLEDGE extends Observable {
         notifyObservers();
     }
 
+    /**
+     * Returns the default amount of heap a distance matrix may use (a quarter of the maximum heap).
+     * @return the default heap budget of a distance matrix in bytes.
+     */
+    public static long getDefaultDistancesHeapBudget() {
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    /**
+     * Returns the amount of heap a distance matrix may use before being stored outside of the heap.
+     * @return the heap budget of a distance matrix in bytes.
+     */
+    public long getDistancesHeapBudget() {
+        return distancesHeapBudget;
+    }
+
+    /**
+     * Specifies the amount of heap a distance matrix may use before being stored outside of the heap.
+     * @param distancesHeapBudget the heap budget of a distance matrix in bytes.
+     */
+    public void setDistancesHeapBudget(long distancesHeapBudget) {
+        this.distancesHeapBudget = distancesHeapBudget;
+    }
+
+    /**
+     * Checks if the distance matrices store the distances as floats.
+     * @return true if the distances are stored with a float precision.
+     */
+    public boolean isDistancesFloatPrecision() {
+        return distancesFloatPrecision;
+    }
+
+    /**
+     * Specifies if the distance matrices store the distances as floats instead of doubles.
+     * @param distancesFloatPrecision true to store the distances with a float precision.
+     */
+    public void setDistancesFloatPrecision(boolean distancesFloatPrecision) {
+        this.distancesFloatPrecision = distancesFloatPrecision;
+    }
+
+    /**
+     * Returns the directory of the memory-mapped files used by the distance matrices exceeding the heap budget.
+     * @return the path of the directory, or null if direct buffers are used instead.
+     */
+    public String getDistancesSpillDirectory() {
+        return distancesSpillDirectory;
+    }
+
+    /**
+     * Specifies the directory of the memory-mapped files used by the distance matrices exceeding the heap budget.
+     * @param distancesSpillDirectory the path of the directory, or null to use direct buffers instead.
+     */
+    public void setDistancesSpillDirectory(String distancesSpillDirectory) {
+        this.distancesSpillDirectory = distancesSpillDirectory;
+    }
+
+    /**
+     * Returns the number of threads used by the parallel computations of the tool.
+     * @return the parallelism level.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Specifies the number of threads used by the parallel computations of the tool.
+     * @param parallelism the parallelism level (1 to compute everything in the calling thread).
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        }
+        if (parallelism != this.parallelism && forkJoinPool != null) {
+            forkJoinPool.shutdown();
+            forkJoinPool = null;
+        }
+        this.parallelism = parallelism;
+        setChanged();
+        notifyObservers();
+    }
+
+    /**
+     * Returns the pool running the parallel computations of the tool.
+     * @return a pool whose parallelism is the one of this model.
+     */
+    public synchronized ForkJoinPool getForkJoinPool() {
+        if (forkJoinPool == null) {
+            forkJoinPool = new ForkJoinPool(parallelism);
+        }
+        return forkJoinPool;
+    }
+
+    /**
+     * Returns the strength of the coverage computed for the products.
+     * @return the number of literals of the tuples covered by the products (t).
+     */
+    public int getCoverageStrength() {
+        return coverageStrength;
+    }
+
+    /**
+     * Set the strength of the coverage computed for the products.
+     * @param coverageStrength the number of literals of the tuples covered by the products (t).
+     */
+    public void setCoverageStrength(int coverageStrength) {
+        if (coverageStrength < TuplesSet.MIN_STRENGTH || coverageStrength > TuplesSet.MAX_STRENGTH) {
+            throw new IllegalArgumentException("The strength must be between " + TuplesSet.MIN_STRENGTH + " and " + TuplesSet.MAX_STRENGTH);
+        }
+        this.coverageStrength = coverageStrength;
+    }
+
+    /**
+     * Returns the directory where the valid tuples of the feature models are cached.
+     * @return the path to the cache directory, or null if the valid tuples are not cached.
+     */
+    public String getValidTuplesCacheDirectory() {
+        return validTuplesCacheDirectory;
+    }
+
+    /**
+     * Set the directory where the valid tuples of the feature models are cached.
+     * @param validTuplesCacheDirectory the path to the cache directory, or null to disable the cache.
+     */
+    public void setValidTuplesCacheDirectory(String validTuplesCacheDirectory) {
+        this.validTuplesCacheDirectory = validTuplesCacheDirectory;
+    }
+
+    /**
+     * Returns the time allowed to each of the exact count and the estimation
+     * of the number of products.
+     * @return the maximum duration in ms.
+     */
+    public long getCountingTimeoutMS() {
+        return countingTimeoutMS;
+    }
+
+    /**
+     * Specifies the time allowed to each of the exact count and the
+     * estimation of the number of products.
+     * @param countingTimeoutMS the maximum duration in ms.
+     */
+    public void setCountingTimeoutMS(long countingTimeoutMS) {
+        this.countingTimeoutMS = countingTimeoutMS;
+    }
+
+    /**
+     * Checks if the generation techniques evaluate the mutations incrementally.
+     * @return true if only the distances of the mutated products are recomputed.
+     */
+    public boolean isIncrementalEvaluation() {
+        return incrementalEvaluation;
+    }
+
+    /**
+     * Specifies if the generation techniques evaluate the mutations incrementally.
+     * @param incrementalEvaluation true to only recompute the distances of the mutated products.
+     */
+    public void setIncrementalEvaluation(boolean incrementalEvaluation) {
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    /**
+     * Checks if the initial products of the generation techniques are drawn
+     * uniformly from a binary decision diagram of the feature model.
+     * @return true if the initial products are drawn uniformly.
+     */
+    public boolean isUniformSampling() {
+        return uniformSampling;
+    }
+
+    /**
+     * Specifies if the initial products of the generation techniques are
+     * drawn uniformly from a binary decision diagram of the feature model,
+     * instead of being enumerated by the solver.
+     * @param uniformSampling true to draw the initial products uniformly.
+     */
+    public void setUniformSampling(boolean uniformSampling) {
+        this.uniformSampling = uniformSampling;
+    }
+
+    /**
+     * Returns the seed of the random generators of the tool.
+     * @return the seed, drawn at random if none was specified.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Specifies the seed of the random generators of the tool. The random
+     * generators are derived from it again each time a feature model is
+     * loaded, so that the products generated for a feature model only depend
+     * on this seed and on the settings of the tool.
+     * @param seed the seed of the random generators.
+     */
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+        seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns a new random generator, whose seed is the next one derived from
+     * the seed of the tool. The generators used by different threads must be
+     * created in a deterministic order, before the threads are started.
+     * @return a random generator independent from the previous ones.
+     */
+    public synchronized Random createRandom() {
+        return new Random(seeds.nextLong());
+    }
+
     /**
      * Returns the number of products to generate.
      * @return an integer representing the number of products to generate.
@@ -319,7 +563,7 @@ public class ModelPLEDGE extends Observable {
      * @return the solver iterator that is used to generate valid products.
      */
     public ISolver getSolverIterator() {
-        return solverIterator;
+        return productsGenerator != null ? productsGenerator.getSolverIterator() : null;
     }
 
     /**
@@ -330,6 +574,24 @@ public class ModelPLEDGE extends Observable {
         return currentAction;
     }
 
+    /**
+     * Create a listener forwarding the progress of a computation to the
+     * observers of this model.
+     * @return a listener updating the current action and the progress.
+     */
+    private ProgressListener createProgressListener() {
+        return new ProgressListener() {
+
+            @Override
+            public void progress(String currentAction, int progress) {
+                synchronized (ModelPLEDGE.this) {
+                    setCurrentAction(currentAction);
+                    setProgress(progress);
+                }
+            }
+        };
+    }
+
     /**
      * Specifies the current action performed by the tool.
      * @param currentAction a String representing the action which is currently performed by the tool.
@@ -364,6 +626,10 @@ public class ModelPLEDGE extends Observable {
         namesToFeaturesInt.clear();
         featureModelConstraints.clear();
         featureModelConstraintsString.clear();
+        featureModelClauses.clear();
+        compiledCNF = null;
+        binaryDecisionDiagram = null;
+        productsCount = null;
         coreFeatures.clear();
         deadFeatures.clear();
         setChanged();
@@ -459,10 +725,11 @@ public class ModelPLEDGE extends Observable {
         setCurrentAction(CURRENT_ACTION_LOAD_CONSTRAINTS);
         featureModelFormat = format;
         clean();
+        setSeed(seed);
         featureModelName = new File(filePath).getName();
         featureModelName = featureModelName.substring(0, featureModelName.lastIndexOf("."));
         setProducts(null);
-        fmPath = filePath;
+        DimacsClausesReader dimacsReader = null;
         switch (format) {
 
             case SPLOT:
@@ -482,10 +749,11 @@ public class ModelPLEDGE extends Observable {
 
                 break;
             case DIMACS:
-                ISolver dimacsSolver = SolverFactory.instance().createSolverByName(solverName);
-                DimacsReader dr = new DimacsReader(dimacsSolver);
-                dr.parseInstance(new FileReader(filePath));
-                solver = (Solver) dimacsSolver;
+                // The solvers of the tool are all created from the clauses of this reader.
+                dimacsReader = new DimacsClausesReader();
+                dimacsReader.read(new FileReader(filePath));
+                compiledCNF = new CompiledCNF(dimacsReader.getVariablesCount(), dimacsReader.getClauses());
+                solver = compiledCNF.createSolver(solverName);
                 BufferedReader in = new BufferedReader(new FileReader(filePath));
                 String line;
                 int n = 0;
@@ -523,14 +791,10 @@ public class ModelPLEDGE extends Observable {
         }
 
 
-        solver.setOrder(order);
-        solverIterator = new ModelIterator(solver);
-        solverIterator.setTimeoutMs(ITERATOR_TIMEOUT);
-
-
         setCurrentAction(CURRENT_ACTION_EXTRACT_CONSTRAINTS);
         setProgress(0);
         int nConstraints = 0;
+        int nVariables = featuresCount;
         switch (format) {
 
             case SPLOT:
@@ -547,11 +811,13 @@ public class ModelPLEDGE extends Observable {
                 for (CNFClause clause : formula.getClauses()) {
 
                     String cons = "";
+                    int[] literals = new int[clause.getLiterals().size()];
 
 
                     for (int i = 0; i < clause.getLiterals().size(); i++) {
                         int signal = clause.getLiterals().get(i).isPositive() ? 1 : -1;
                         int varID = reasonerSAT.getVariableIndex(clause.getLiterals().get(i).getVariable().getID());
+                        literals[i] = signal * varID;
 
                         String f = featuresList.get(varID - 1);
                         if (signal < 0) {
@@ -567,69 +833,42 @@ public class ModelPLEDGE extends Observable {
                     }
                     featureModelConstraints.add(cons);
                     featureModelConstraintsString.add(cons);
+                    featureModelClauses.add(literals);
                     setProgress((int) ((j + 1) / (double) nConstraints * 100));
                     j++;
                 }
 
                 break;
             case DIMACS:
-
-                BufferedReader in = new BufferedReader(new FileReader(filePath));
-                String line;
-
-                while ((line = in.readLine()) != null) {
-                    if (line.startsWith("p")) {
-                        StringTokenizer st = new StringTokenizer(line.trim(), " ");
-                        st.nextToken();
-                        st.nextToken();
-                        st.nextToken();
-                        nConstraints = Integer.parseInt(st.nextToken());
-                        break;
-
-                    }
-                }
-                in.close();
-
+                nVariables = dimacsReader.getVariablesCount();
+                nConstraints = dimacsReader.getClauses().size();
                 int i = 0;
-                in = new BufferedReader(new FileReader(filePath));
-                while ((line = in.readLine()) != null) {
-                    if (!line.startsWith("c") && !line.startsWith("p")) {
-                        String cons = "";
-                        StringTokenizer st = new StringTokenizer(line.trim(), " ");
-
-                        while (st.hasMoreTokens()) {
-                            int f = Integer.parseInt(st.nextToken());
-
-                            if (f != 0) {
-                                if (cons.equals("")) {
-                                    if (f > 0) {
-                                        cons += featuresList.get((f - 1));
-
-                                    } else {
-                                        cons += NOT + featuresList.get((-f) - 1);
-                                    }
-                                } else {
-                                    cons += OR;
-                                    if (f > 0) {
-                                        cons += featuresList.get((f - 1));
-
-                                    } else {
-                                        cons += NOT + featuresList.get((-f) - 1);
-                                    }
-                                }
-                            }
-
+                for (int[] clause : dimacsReader.getClauses()) {
+                    String cons = "";
+                    for (int f : clause) {
+                        if (!cons.equals("")) {
+                            cons += OR;
+                        }
+                        if (f > 0) {
+                            cons += featuresList.get((f - 1));
+                        } else {
+                            cons += NOT + featuresList.get((-f) - 1);
                         }
-                        featureModelConstraints.add(cons);
-                        featureModelConstraintsString.add(cons);
-                        setProgress((int) ((i + 1) / (double) nConstraints * 100));
-                        i++;
                     }
+                    featureModelConstraints.add(cons);
+                    featureModelConstraintsString.add(cons);
+                    featureModelClauses.add(clause);
+                    setProgress((int) ((i + 1) / (double) nConstraints * 100));
+                    i++;
                 }
-                in.close();
 
                 break;
         }
+        if (compiledCNF == null) {
+            compiledCNF = new CompiledCNF(nVariables, featureModelClauses);
+        }
+        productsGenerator = new ProductsGenerator(this, createRandom());
+        productsGenerator.setProgressListener(createProgressListener());
 
 
 //        for (int i = 0; i < nConstraints; i++) {
@@ -660,24 +899,16 @@ public class ModelPLEDGE extends Observable {
 
         setCurrentAction(CURRENT_ACTION_FINDING_CORE_DEAD_FEATURES);
         setProgress(0);
-        n = 0;
-        IVecInt vector = new VecInt();
         // Core and dead features
-        for (String feature : featuresList) {
-            int f = namesToFeaturesInt.get(feature);
-            vector.clear();
-            vector.push(-f);
-            if (!solver.isSatisfiable(vector)) {
+        BackboneCalculator backboneCalculator = new BackboneCalculator(solver);
+        backboneCalculator.setProgressListener(createProgressListener());
+        for (int literal : backboneCalculator.compute(featuresCount)) {
+            String feature = featuresList.get(Math.abs(literal) - 1);
+            if (literal > 0) {
                 coreFeatures.add(feature);
-            }
-
-            vector.clear();
-            vector.push(f);
-            if (!solver.isSatisfiable(vector)) {
+            } else {
                 deadFeatures.add(feature);
             }
-            n++;
-            setProgress((int) ((n) / (double) featuresCount * 100));
         }
 
         setRunning(false);
@@ -713,72 +944,106 @@ public class ModelPLEDGE extends Observable {
         setRunning(true);
         setIndeterminate(false);
         setGlobalAction(GLOBAL_ACTION_PRIORITIZING_PRODUCTS);
-        setProducts(prioritizationTechnique.prioritize(this, products));
+        setProducts(new ArrayList<Product>(prioritizationTechnique.prioritize(this, products, false).getProducts()));
         setRunning(false);
         setChanged();
         notifyObservers();
     }
 
     /**
-     * Compute the valid pairs of the FM.
-    
+     * Compute the pairwise coverage of the products.
+     * @return the pairwise coverage of the products.
      */
-    private Set<TSet> computeValidPairs() throws TimeoutException {
-        Set<TSet> pairs = new HashSet<TSet>();
+    public String getPairwiseCoverage() throws Exception {
+        return getCoverage(2);
+    }
 
-        List<Integer> extendedFeatures = new ArrayList<Integer>(featuresIntList.size() * 2);
+    /**
+     * Compute the t-wise coverage of the products.
+     * @param strength the number of literals of the tuples (t).
+     * @return the t-wise coverage of the products.
+     */
+    public String getCoverage(int strength) throws Exception {
+        return describeCoverage(computeCoverage(strength));
+    }
 
-        for (Integer i : featuresIntList) {
-            extendedFeatures.add(i);
-            extendedFeatures.add(-i);
+    /**
+     * Compute the t-wise coverage of the products, in the order of the list.
+     * @param strength the number of literals of the tuples (t).
+     * @return the coverage of the products, with the valid tuples of the
+     * model if a feature model is loaded.
+     */
+    public CoverageResult computeCoverage(int strength) throws Exception {
+        setRunning(true);
+        try {
+            setIndeterminate(false);
+            setGlobalAction(GLOBAL_ACTION_COVERAGE);
+            CoverageService service = new CoverageService(this);
+            service.setProgressListener(createProgressListener());
+            return service.computeCoverage(products, strength);
+        } finally {
+            setRunning(false);
         }
+    }
 
-        int size = extendedFeatures.size();
-
-        Util.nCk(size, 2, pairs, extendedFeatures, true, solver);
-
-        return pairs;
+    /**
+     * Describe the coverage of the products.
+     * @param result the coverage of the products.
+     * @return a description of the coverage, the APFD and, if it is known,
+     * the number of valid tuples of the model.
+     */
+    public String describeCoverage(CoverageResult result) {
+        int strength = result.getStrength();
+        String tuples = strength == 2 ? "pairs" : strength + "-tuples";
+        long d1 = result.getCoveredCount();
+        long d2 = result.getValidCount();
+        String apfd = "\nAPFD: " + new DecimalFormat("#.####").format(result.getCoverageTracker().getAPFD());
+        if (d2 >= 0) {
+            double cov = result.getCoverage() * 100.0;
+            return "Number of valid " + tuples + " of the model: " + d2 + "\nNumber of " + tuples + " covered by the products: " + d1 + "\n\nCoverage: " + new DecimalFormat("#.##").format(cov) + "%" + apfd;
+        } else {
+            return "Number of " + tuples + " covered by the products: " + d1 + apfd;
+        }
     }
 
     /**
-     * Compute the pairwise coverage of the products.
-     * @return the pairwise coverage of the products.
+     * Estimate the t-wise coverage of the products from random tuples.
+     * @param strength the number of literals of the tuples (t).
+     * @param maxSamples the maximum number of sampled tuples, or 0 for no limit.
+     * @param maxTimeMS the maximum duration of the sampling in ms, or 0 for no limit.
+     * @return the estimated t-wise coverage of the products, with its confidence interval.
      */
-    public String getPairwiseCoverage() throws TimeoutException {
+    public String getApproximateCoverage(int strength, long maxSamples, long maxTimeMS) throws Exception {
         setRunning(true);
-        setIndeterminate(false);
-        setGlobalAction(GLOBAL_ACTION_COVERAGE);
-        setCurrentAction(CURRENT_ACTION_PRODUCT_PAIRS);
-
-        Set<TSet> productsPairs = new HashSet<TSet>();
-
-        int i = 0;
-        for (Product p : products) {
-            setCurrentAction(CURRENT_ACTION_PRODUCT_PAIRS + " product " + i);
-            productsPairs.addAll(p.getCoveredPairs());
-            setProgress((int) (((double) i / (double) products.size()) * 100.0));
-            i++;
+        try {
+            setIndeterminate(false);
+            setGlobalAction(GLOBAL_ACTION_COVERAGE);
+            CoverageService service = new CoverageService(this);
+            service.setProgressListener(createProgressListener());
+            return describeCoverage(service.estimateCoverage(products, strength, maxSamples, maxTimeMS));
+        } finally {
+            setRunning(false);
         }
+    }
 
-        int d1 = productsPairs.size();
-        int d2 =  0;
-        double cov = 0;
-        if (solver != null) {
-
-            setIndeterminate(true);
-            setCurrentAction(CURRENT_ACTION_MODEL_PAIRS);
-            d2 = computeValidPairs().size();
-
-
-            cov = (double) d1 / d2 * 100.0;
-        }
-        else
-            cov = d1;
-        setRunning(false);
-        if (solver != null)
-        return "Number of valid pairs of the model: " + d2 + "\nNumber of pairs covered by the products: " + d1 + "\n\nCoverage: " + new DecimalFormat("#.##").format(cov) + "%";
-        else
-            return "Number of pairs covered by the products: " + d1 ;
+    /**
+     * Describe an estimation of the coverage of the products.
+     * @param estimate the estimation of the coverage.
+     * @return a description of the estimated coverage and of its confidence interval.
+     */
+    public String describeCoverage(CoverageEstimate estimate) {
+        int strength = estimate.getStrength();
+        String tuples = strength == 2 ? "pairs" : strength + "-tuples";
+        String confidence = " (" + new DecimalFormat("#").format(CoverageEstimate.CONFIDENCE_LEVEL * 100) + "% confidence interval: [";
+        DecimalFormat countFormat = new DecimalFormat("#");
+        DecimalFormat percentFormat = new DecimalFormat("#.##");
+        double[] validTuples = estimate.getValidTuplesInterval();
+        double[] coverage = estimate.getCoverageInterval();
+        return "Estimated number of valid " + tuples + " of the model: " + countFormat.format(estimate.getValidTuplesEstimate())
+                + confidence + countFormat.format(validTuples[0]) + ", " + countFormat.format(validTuples[1]) + "])"
+                + "\nNumber of sampled " + tuples + ": " + estimate.getSamplesCount() + " (" + estimate.getValidSamplesCount() + " valid)"
+                + "\n\nEstimated coverage: " + percentFormat.format(estimate.getCoverage() * 100) + "%"
+                + confidence + percentFormat.format(coverage[0] * 100) + "%, " + percentFormat.format(coverage[1] * 100) + "%])";
     }
 
     /**
@@ -796,61 +1061,166 @@ public class ModelPLEDGE extends Observable {
         }
     }
 
-    private Product toProduct(int[] vector) {
-
-        Product product = new Product();
-        for (int i : vector) {
-            product.add(i);
-        }
-        return product;
-    }
-
     /**
      * returns n products obtained at random from the solver.
      * @param count the number of products to get.
      * @return the list of products obtained at random for the solver.
+     * @throws Exception if the solver fails or reaches its timeout.
      */
-    public List<Product> getUnpredictableProducts(int count) {
-        List<Product> products = new ArrayList<Product>(count);
+    public List<Product> getUnpredictableProducts(int count) throws Exception {
+        return productsGenerator.getUnpredictableProducts(count);
+    }
 
-        while (products.size() < count) {
-            System.out.println("Generating the "+(products.size()+1)+"-th product!");
-            try {
-                if (solverIterator.isSatisfiable()) {
-                    Product product = toProduct(solverIterator.model());
+    /**
+     * Draw distinct products at random from one solver per thread of the tool.
+     * @param count the number of products to draw.
+     * @return a list of count different valid products.
+     * @throws Exception if a solver cannot be created or fails.
+     */
+    public List<Product> sampleProducts(int count) throws Exception {
+        setRunning(true);
+        try {
+            setIndeterminate(false);
+            setGlobalAction(GLOBAL_ACTION_GENERATING_PRODUCTS);
+            ProductsSampler sampler = new ProductsSampler(this, createRandom());
+            sampler.setProgressListener(createProgressListener());
+            return sampler.sample(count);
+        } finally {
+            setRunning(false);
+        }
+    }
 
-                    if (!products.contains(product)) {
-                        products.add(product);
-                    }
+    /**
+     * Returns the number of products of the feature model, if it has been
+     * counted by {@link #countProducts()}.
+     * @return the number of products, or null if it is unknown.
+     */
+    public ModelCount getProductsCount() {
+        return productsCount;
+    }
 
-                } else {
-                    switch (featureModelFormat) {
-
-                        case SPLOT:
-                            FeatureModel fm = new XMLFeatureModel(fmPath, XMLFeatureModel.USE_VARIABLE_NAME_AS_ID);
-                            fm.loadModel();
-                            ReasoningWithSAT reasonerSAT = new FMReasoningWithSAT(solverName, fm, SAT_TIMEOUT);
-                            reasonerSAT.init();
-                            solver = (Solver) reasonerSAT.getSolver();
-                            break;
-                        case DIMACS:
-                            ISolver dimacsSolver = SolverFactory.instance().createSolverByName(solverName);
-                            DimacsReader dr = new DimacsReader(dimacsSolver);
-                            dr.parseInstance(new FileReader(fmPath));
-                            solver = (Solver) dimacsSolver;
-                            break;
+    /**
+     * Count the products of the feature model, exactly or approximately if
+     * the exact count does not end in time. The exact counts are cached by
+     * hash of the clauses of the feature model, in memory and in the cache
+     * directory if there is one.
+     * @return the number of products, or null if neither the exact count nor
+     * the estimation ended in time.
+     * @throws Exception if the solver fails.
+     */
+    public ModelCount countProducts() throws Exception {
+        ModelCount count;
+        setRunning(true);
+        try {
+            setIndeterminate(true);
+            setGlobalAction(GLOBAL_ACTION_COUNTING_PRODUCTS);
+            String hash = ValidTuplesCache.getFeatureModelHash(this);
+            ValidTuplesCache cache = validTuplesCacheDirectory != null ? new ValidTuplesCache(validTuplesCacheDirectory) : null;
+            count = productsCounts.get(hash);
+            if (count == null && cache != null) {
+                count = cache.loadCount(this);
+            }
+            if (count == null) {
+                ModelCounter counter = new ModelCounter(this);
+                counter.setTimeoutMS(countingTimeoutMS);
+                counter.setRandom(createRandom());
+                try {
+                    count = counter.count();
+                    if (cache != null) {
+                        cache.storeCount(this, count);
                     }
-                    solver.setTimeout(SAT_TIMEOUT);
-                    solver.setOrder(order);
-                    solverIterator = new ModelIterator(solver);
-                    solverIterator.setTimeoutMs(ITERATOR_TIMEOUT);
+                } catch (TimeoutException e) {
+                    count = null;
                 }
+            }
+            if (count != null && count.isExact()) {
+                productsCounts.put(hash, count);
+            }
+            productsCount = count;
+        } finally {
+            setRunning(false);
+        }
+        setChanged();
+        notifyObservers();
+        return count;
+    }
+
+    /**
+     * Returns the binary decision diagram of the feature model, compiling it
+     * the first time.
+     * @return the binary decision diagram of the clauses of the feature model.
+     * @throws IllegalStateException if the diagram is too large.
+     */
+    public synchronized BinaryDecisionDiagram getBinaryDecisionDiagram() {
+        if (compiledCNF == null) {
+            throw new IllegalStateException("No feature model is loaded");
+        }
+        if (binaryDecisionDiagram == null) {
+            binaryDecisionDiagram = new BinaryDecisionDiagram(compiledCNF);
+        }
+        return binaryDecisionDiagram;
+    }
 
-            } catch (Exception e) {
-                e.printStackTrace();
+    /**
+     * Draw distinct products uniformly at random among all the products of
+     * the feature model.
+     * @param count the number of products to draw.
+     * @param random the random generator.
+     * @return a list of count different valid products.
+     * @throws IllegalArgumentException if the feature model has less than count products.
+     */
+    public List<Product> getUniformProducts(int count, Random random) {
+        BinaryDecisionDiagram bdd = getBinaryDecisionDiagram();
+        if (bdd.getProductsCount().compareTo(BigInteger.valueOf(count)) < 0) {
+            throw new IllegalArgumentException("The feature model has only " + bdd.getProductsCount() + " products");
+        }
+        List<Product> uniformProducts = new ArrayList<Product>(count);
+        ProductsIndex productsIndex = new ProductsIndex();
+        while (uniformProducts.size() < count) {
+            Product product = new Product(bdd.sample(random));
+            if (productsIndex.add(product)) {
+                uniformProducts.add(product);
             }
         }
-        return products;
+        return uniformProducts;
+    }
+
+    /**
+     * Returns the first products of the generation techniques, drawn
+     * uniformly if {@link #isUniformSampling()}, or by the products generator
+     * otherwise.
+     * @param count the number of products to draw.
+     * @return a list of count different valid products.
+     * @throws Exception if the solver fails or reaches its timeout.
+     */
+    public List<Product> getInitialProducts(int count) throws Exception {
+        if (uniformSampling) {
+            return getUniformProducts(count, productsGenerator.getRandom());
+        }
+        return getUnpredictableProducts(count);
+    }
+
+    /**
+     * Returns the generator drawing the products of {@link #getUnpredictableProducts(int)}.
+     * @return the products generator of the feature model, or null if no feature model is loaded.
+     */
+    public ProductsGenerator getProductsGenerator() {
+        return productsGenerator;
+    }
+
+    /**
+     * Create a new solver holding the constraints of the feature model.
+     * @return a solver independent from the ones of this model.
+     * @throws Exception if the clauses of the feature model are trivially
+     * unsatisfiable.
+     */
+    public Solver createSolver() throws Exception {
+        if (compiledCNF == null) {
+            throw new IllegalStateException("No feature model is loaded");
+        }
+        Solver newSolver = compiledCNF.createSolver(solverName);
+        newSolver.setTimeout(SAT_TIMEOUT);
+        return newSolver;
     }
 
     /**
@@ -870,13 +1240,9 @@ public class ModelPLEDGE extends Observable {
             out.newLine();
         }
         for (Product product : products) {
-            int done = 0;
-            for (Integer feature : product) {
-                out.write("" + feature);
-                if (done < product.size()) {
-                    out.write(";");
-                }
-                done++;
+            for (int feature : product.toModel()) {
+                out.write(Integer.toString(feature));
+                out.write(";");
             }
 
             out.newLine();
@@ -896,12 +1262,16 @@ public class ModelPLEDGE extends Observable {
         setIndeterminate(true);
         setGlobalAction(GLOBAL_ACTION_LOAD_PRODUCTS);
         solver = null;
-        solverIterator = null;
+        productsGenerator = null;
         featuresIntList = new ArrayList<Integer>();
         featuresList = new ArrayList<String>();
         namesToFeaturesInt = new HashMap<String, Integer>();
         featureModelConstraints = new ArrayList<String>();
         featureModelConstraintsString = new ArrayList<String>();
+        featureModelClauses = new ArrayList<int[]>();
+        compiledCNF = null;
+        binaryDecisionDiagram = null;
+        productsCount = null;
         coreFeatures = new ArrayList<String>();
         deadFeatures = new ArrayList<String>();
         BufferedReader in = new BufferedReader(new FileReader(inFile));
@@ -937,7 +1307,7 @@ public class ModelPLEDGE extends Observable {
         setIndeterminate(true);
         setGlobalAction(GLOBAL_ACTION_LOAD_PRODUCTS);
 //        solver = null;
-//        solverIterator = null;
+//        productsGenerator = null;
 //        featuresIntList = new ArrayList<Integer>();
 //        featuresList = new ArrayList<String>();
 //        namesToFeaturesInt = new HashMap<String, Integer>();
@@ -952,7 +1322,7 @@ public class ModelPLEDGE extends Observable {
 
         while ((line = in.readLine()) != null) {
             if (!line.contains(">")) {
-                Product p = new Product();
+                Product p = new Product(featuresList.size());
                 setCurrentAction("Extracting product number" + products.size());
                 StringTokenizer st = new StringTokenizer(line, ";");
                 while (st.hasMoreTokens()) {
@@ -0,0 +1,110 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+/**
+ * A set of pairs of signed literals, stored as a triangular bit matrix. The
+ * pair of literals whose bit indices (see {@link Product#literalToIndex(int)})
+ * are a &lt; b is stored at the bit b * (b - 1) / 2 + a, which is its rank
+ * as a {@link TuplesSet} of strength 2. The rank of a pair does not depend on
+ * the number of features, so sets built for different feature counts can be
+ * merged.
+ *
+ * @author agent
+ */
+public class PairsSet extends TuplesSet {
+
+    static final long serialVersionUID = -6618469844567325813L;
+
+    /**
+     * Create an empty set of pairs.
+     */
+    public PairsSet() {
+        super(2);
+    }
+
+    /**
+     * Create an empty set of pairs able to hold the pairs of a given number of
+     * features without resizing.
+     * @param nbFeatures the number of features of the feature model.
+     */
+    public PairsSet(int nbFeatures) {
+        super(2, nbFeatures);
+    }
+
+    /**
+     * Returns the rank of a pair of literal bit indices in the triangular matrix.
+     * @param index1 the bit index of the first literal.
+     * @param index2 the bit index of the second literal.
+     * @return the position of the pair in the matrix.
+     */
+    public static long rank(int index1, int index2) {
+        int a = Math.min(index1, index2);
+        long b = Math.max(index1, index2);
+        if (a == b) {
+            throw new IllegalArgumentException("A pair needs two different literals");
+        }
+        return b * (b - 1) / 2 + a;
+    }
+
+    /**
+     * Adds a pair of signed literals to this set.
+     * @param literal1 the first literal.
+     * @param literal2 the second literal.
+     * @return true if the pair was not already in this set.
+     */
+    public boolean add(int literal1, int literal2) {
+        return set(rank(Product.literalToIndex(literal1), Product.literalToIndex(literal2)));
+    }
+
+    /**
+     * Checks if a pair of signed literals belongs to this set.
+     * @param literal1 the first literal.
+     * @param literal2 the second literal.
+     * @return true if the pair is in this set.
+     */
+    public boolean contains(int literal1, int literal2) {
+        return get(rank(Product.literalToIndex(literal1), Product.literalToIndex(literal2)));
+    }
+
+    /**
+     * Returns the pair of literal bit indices at a given rank.
+     * @param rank the position of the pair in the matrix.
+     * @return an array {a, b} of the bit indices, with a &lt; b.
+     */
+    public static int[] unrank(long rank) {
+        int b = (int) ((1 + Math.sqrt(1 + 8.0 * rank)) / 2);
+        while ((long) b * (b - 1) / 2 > rank) {
+            b--;
+        }
+        while ((long) (b + 1) * b / 2 <= rank) {
+            b++;
+        }
+        return new int[]{(int) (rank - (long) b * (b - 1) / 2), b};
+    }
+
+    /**
+     * Returns the number of pairs of literals of a given number of features.
+     * @param nbFeatures the number of features.
+     * @return the number of ranks of the matrix of these features.
+     */
+    public static long getPairsCount(int nbFeatures) {
+        return getTuplesCount(nbFeatures, 2);
+    }
+}
@@ -21,24 +21,36 @@
 package pledge.core;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import org.sat4j.specs.TimeoutException;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * This class represents a product (i.e. a list of features, selected or not).
- * 
+ * The signed literals of the product are stored as bits: the literal f is
+ * stored at the index 2 * (f - 1) and the literal -f at the index
+ * 2 * (f - 1) + 1. A 64-bit fingerprint of the literals is updated with each
+ * literal added or removed, so that equal products can be found by hashing
+ * without comparing their literals (see {@link ProductsIndex}).
+ *
  * @author Christopher Henard
  */
-public class Product extends HashSet<Integer> implements Serializable {
+public class Product extends AbstractSet<Integer> implements Serializable {
 
-    /* Relative coverage of this product. This value depends on the number of pairs 
-     * covered by the previous products when we evaluate the coverage of a set of 
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final long[] EMPTY_WORDS = new long[0];
+    /* Relative coverage of this product. This value depends on the number of pairs
+     * covered by the previous products when we evaluate the coverage of a set of
      * products.     */
     private double coverage;
-    static final long serialVersionUID = -6618469841127325812L;
+    /* The bits of the literals of this product. */
+    private long[] words;
+    /* The number of literals of this product. */
+    private int size;
+    /* The sum of the hashes of the literals of this product. */
+    private long fingerprint;
+    static final long serialVersionUID = -6618469841127325813L;
 
     /**
      * Create a product.
@@ -46,16 +58,276 @@ public class Product extends HashSet<Integer> implements Serializable {
     public Product() {
         super();
         coverage = 0;
+        words = EMPTY_WORDS;
+        size = 0;
+        fingerprint = 0;
     }
 
-    public Set<TSet> getCoveredPairs() throws TimeoutException {
+    /**
+     * Create a product able to hold the literals of a given number of features
+     * without resizing.
+     * @param nbFeatures the number of features of the feature model.
+     */
+    public Product(int nbFeatures) {
+        this();
+        words = new long[wordsFor(nbFeatures * 2)];
+    }
 
-        List<Integer> pl = new ArrayList<Integer>(this);
-        int size = size();
-        Set<TSet> pairs = new HashSet<TSet>(size * (size - 1) / 2);
-        Util.nCk(size, 2, pairs, pl, false, null);
-        return pairs;
+    /**
+     * Create a product from a model returned by the solver.
+     * @param model the signed literals of the product.
+     */
+    public Product(int[] model) {
+        this(model.length);
+        for (int literal : model) {
+            add(literal);
+        }
+    }
+
+    /**
+     * Returns the bit index of a signed literal.
+     * @param literal the signed literal (i.e. f or -f).
+     * @return the index of the bit representing this literal.
+     */
+    public static int literalToIndex(int literal) {
+        if (literal > 0) {
+            return (literal - 1) << 1;
+        } else if (literal < 0) {
+            return ((-literal - 1) << 1) | 1;
+        }
+        throw new IllegalArgumentException("0 is not a valid literal");
+    }
+
+    /**
+     * Returns the signed literal represented by a bit index.
+     * @param index the index of the bit.
+     * @return the signed literal represented by this bit.
+     */
+    public static int indexToLiteral(int index) {
+        int feature = (index >> 1) + 1;
+        return (index & 1) == 0 ? feature : -feature;
+    }
+
+    /**
+     * Returns a 64-bit hash of a literal bit index (the finalizer of the
+     * SplitMix64 generator), so that the fingerprints of different products
+     * are spread over all the bits.
+     */
+    private static long hashIndex(int index) {
+        long z = (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int wordsFor(int nbBits) {
+        return ((nbBits - 1) >> ADDRESS_BITS_PER_WORD) + 1;
+    }
+
+    private void ensureCapacity(int wordIndex) {
+        if (wordIndex >= words.length) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, wordIndex + 1));
+        }
+    }
+
+    /**
+     * Adds a signed literal to this product.
+     * @param literal the signed literal to add.
+     * @return true if the literal was not already in this product.
+     */
+    public boolean add(int literal) {
+        int index = literalToIndex(literal);
+        int wordIndex = index >> ADDRESS_BITS_PER_WORD;
+        ensureCapacity(wordIndex);
+        long mask = 1L << index;
+        if ((words[wordIndex] & mask) != 0) {
+            return false;
+        }
+        words[wordIndex] |= mask;
+        size++;
+        fingerprint += hashIndex(index);
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer literal) {
+        return add(literal.intValue());
+    }
+
+    /**
+     * Checks if a signed literal belongs to this product.
+     * @param literal the signed literal.
+     * @return true if the literal is in this product.
+     */
+    public boolean contains(int literal) {
+        if (literal == 0) {
+            return false;
+        }
+        int index = literalToIndex(literal);
+        int wordIndex = index >> ADDRESS_BITS_PER_WORD;
+        return wordIndex < words.length && (words[wordIndex] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
     }
 
-    
+    /**
+     * Removes a signed literal from this product.
+     * @param literal the signed literal to remove.
+     * @return true if the literal was in this product.
+     */
+    public boolean remove(int literal) {
+        if (!contains(literal)) {
+            return false;
+        }
+        int index = literalToIndex(literal);
+        words[index >> ADDRESS_BITS_PER_WORD] &= ~(1L << index);
+        size--;
+        fingerprint -= hashIndex(index);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer && remove(((Integer) o).intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        size = 0;
+        fingerprint = 0;
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of this product. Equal products have the
+     * same fingerprint, different products have the same one with a
+     * probability of about 2^-64.
+     * @return the fingerprint of the literals of this product.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of literals shared by this product and another one.
+     * @param other the other product.
+     * @return the size of the intersection of the two products.
+     */
+    public int intersectionSize(Product other) {
+        long[] otherWords = other.words;
+        int common = Math.min(words.length, otherWords.length);
+        int count = 0;
+        for (int i = 0; i < common; i++) {
+            count += Long.bitCount(words[i] & otherWords[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the signed literals of this product, sorted by feature.
+     * @return an array containing the signed literals of this product.
+     */
+    public int[] toModel() {
+        int[] model = new int[size];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                model[n++] = indexToLiteral((w << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return model;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+
+            private int wordIndex = 0;
+            private long word = words.length > 0 ? words[0] : 0L;
+            private int last = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && wordIndex < words.length - 1) {
+                    word = words[++wordIndex];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = (wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                last = indexToLiteral(index);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == 0) {
+                    throw new IllegalStateException();
+                }
+                Product.this.remove(last);
+                last = 0;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Product)) {
+            return super.equals(obj);
+        }
+        final Product other = (Product) obj;
+        if (size != other.size || fingerprint != other.fingerprint) {
+            return false;
+        }
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) {
+            if (words[i] != other.words[i]) {
+                return false;
+            }
+        }
+        // Both products have the same size, so the remaining words are empty.
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                hash += indexToLiteral((w << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the pairs of literals covered by this product.
+     * @return the set of pairs covered by this product.
+     */
+    public PairsSet getCoveredPairs() {
+        PairsSet pairs = new PairsSet();
+        pairs.addProduct(this);
+        return pairs;
+    }
 }
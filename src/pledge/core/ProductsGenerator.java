@@ -0,0 +1,152 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ISolver;
+import org.sat4j.tools.ModelIterator;
+
+/**
+ * This class draws valid products at random from its own solver. Several
+ * generators may be used concurrently on the same feature model, each one
+ * by a single thread. All the random choices of the solver are drawn from
+ * the random generator of the generator, so that two generators with the
+ * same seed draw the same products.
+ *
+ * @author agent
+ */
+public class ProductsGenerator {
+
+    private static final int ITERATOR_TIMEOUT = 150000;
+    private static final String CURRENT_ACTION_GENERATING = "Generating the product number ";
+    private static final int DRAWN_PRODUCTS_CAPACITY = 1024;
+    private final ModelPLEDGE model;
+    private final Random random;
+    private ISolver solverIterator;
+    private ProgressListener progressListener;
+    private final Product[] drawnProducts = new Product[DRAWN_PRODUCTS_CAPACITY];
+    private long drawnProductsCount;
+
+    /**
+     * Create a products generator for the feature model currently loaded.
+     * @param model the model of the application.
+     * @param random the random generator used by the solver.
+     * @throws Exception if the solver cannot be created.
+     */
+    public ProductsGenerator(ModelPLEDGE model, Random random) throws Exception {
+        this.model = model;
+        this.random = random;
+        reset();
+    }
+
+    /**
+     * Restart the generation on a fresh solver, once all the products of the
+     * current one have been enumerated.
+     */
+    private void reset() throws Exception {
+        Solver solver = model.createSolver();
+        solver.setOrder(new RandomWalkOrder(random, 1));
+        solverIterator = new ModelIterator(solver);
+        solverIterator.setTimeoutMs(ITERATOR_TIMEOUT);
+    }
+
+    /**
+     * Returns the solver iterator that is used to generate valid products.
+     * @return the solver iterator that is used to generate valid products.
+     */
+    public ISolver getSolverIterator() {
+        return solverIterator;
+    }
+
+    /**
+     * Set the listener notified after each new product of
+     * {@link #getUnpredictableProducts(int)}.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Returns the random generator of this generator.
+     * @return the random generator used by the solver.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Returns the next product of the solver, restarting on a fresh solver if
+     * all its products have been enumerated.
+     * @return a product obtained at random from the solver.
+     * @throws Exception if the solver fails or reaches its timeout.
+     */
+    public Product nextProduct() throws Exception {
+        while (!solverIterator.isSatisfiable()) {
+            reset();
+        }
+        Product product = new Product(solverIterator.model());
+        synchronized (drawnProducts) {
+            drawnProducts[(int) (drawnProductsCount++ % DRAWN_PRODUCTS_CAPACITY)] = product;
+        }
+        return product;
+    }
+
+    /**
+     * Returns the last products drawn by this generator, which are valid
+     * products of the feature model. Only the last
+     * {@value #DRAWN_PRODUCTS_CAPACITY} products are kept.
+     * @return a copy of the list of the last products drawn.
+     */
+    public List<Product> getDrawnProducts() {
+        synchronized (drawnProducts) {
+            int count = (int) Math.min(drawnProductsCount, DRAWN_PRODUCTS_CAPACITY);
+            List<Product> products = new ArrayList<Product>(count);
+            for (int i = 0; i < count; i++) {
+                products.add(drawnProducts[i]);
+            }
+            return products;
+        }
+    }
+
+    /**
+     * returns n products obtained at random from the solver.
+     * @param count the number of products to get.
+     * @return the list of products obtained at random for the solver.
+     * @throws Exception if the solver fails or reaches its timeout.
+     */
+    public List<Product> getUnpredictableProducts(int count) throws Exception {
+        List<Product> products = new ArrayList<Product>(count);
+        ProductsIndex productsIndex = new ProductsIndex();
+
+        while (products.size() < count) {
+            Product product = nextProduct();
+            if (productsIndex.add(product)) {
+                products.add(product);
+                if (progressListener != null) {
+                    progressListener.progress(CURRENT_ACTION_GENERATING + products.size(), (int) (products.size() / (double) count * 100));
+                }
+            }
+        }
+        return products;
+    }
+}
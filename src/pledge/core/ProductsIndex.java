@@ -0,0 +1,127 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class indexes products by their fingerprint (see
+ * {@link Product#getFingerprint()}) to check in constant time whether an
+ * equal product has already been seen. The products must not be modified
+ * while they are indexed.
+ *
+ * @author agent
+ */
+public class ProductsIndex {
+
+    private final Map<Long, Product> products;
+    /* The products whose fingerprint is already used by a different product. */
+    private final List<Product> collisions;
+
+    /**
+     * Create an empty index.
+     */
+    public ProductsIndex() {
+        products = new HashMap<Long, Product>();
+        collisions = new ArrayList<Product>(0);
+    }
+
+    /**
+     * Create an index of some products.
+     * @param products the products to index.
+     */
+    public ProductsIndex(Collection<Product> products) {
+        this();
+        for (Product product : products) {
+            add(product);
+        }
+    }
+
+    /**
+     * Checks if a product equal to a given one is indexed.
+     * @param product the product.
+     * @return true if an equal product is in this index.
+     */
+    public boolean contains(Product product) {
+        Product indexed = products.get(product.getFingerprint());
+        if (indexed == null) {
+            return false;
+        }
+        return indexed.equals(product) || (!collisions.isEmpty() && collisions.contains(product));
+    }
+
+    /**
+     * Adds a product to this index.
+     * @param product the product to add.
+     * @return true if no equal product was already in this index.
+     */
+    public boolean add(Product product) {
+        Product indexed = products.get(product.getFingerprint());
+        if (indexed == null) {
+            products.put(product.getFingerprint(), product);
+            return true;
+        }
+        if (indexed.equals(product) || collisions.contains(product)) {
+            return false;
+        }
+        collisions.add(product);
+        return true;
+    }
+
+    /**
+     * Removes a product from this index.
+     * @param product the product to remove.
+     * @return true if an equal product was in this index.
+     */
+    public boolean remove(Product product) {
+        Long fingerprint = product.getFingerprint();
+        Product indexed = products.get(fingerprint);
+        if (indexed == null) {
+            return false;
+        }
+        if (!indexed.equals(product)) {
+            return collisions.remove(product);
+        }
+        products.remove(fingerprint);
+        // Another product with the same fingerprint takes the place of the removed one.
+        Iterator<Product> it = collisions.iterator();
+        while (it.hasNext()) {
+            Product collision = it.next();
+            if (collision.getFingerprint() == fingerprint) {
+                products.put(fingerprint, collision);
+                it.remove();
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of products of this index.
+     * @return the number of indexed products.
+     */
+    public int size() {
+        return products.size() + collisions.size();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * This class draws distinct valid products at random from several solvers in
+ * parallel. Each solver is driven by its own thread and its own random
+ * generator, seeded from the generator of the sampler. Each thread puts its
+ * products in its own bounded queue, and the calling thread takes them from
+ * the queues in turn and removes the duplicates. The products therefore only
+ * depend on the seed of the sampler and on the number of solvers, not on the
+ * scheduling of the threads.
+ *
+ * @author agent
+ */
+public class ProductsSampler {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final String CURRENT_ACTION_SAMPLING = "Generating the product number ";
+    private final ModelPLEDGE model;
+    private final Random random;
+    private int solversCount;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private ProgressListener progressListener;
+
+    /**
+     * Create a sampler of the feature model currently loaded, with one solver
+     * per thread of the model.
+     * @param model the model of the application.
+     * @param random the random generator seeding the solvers.
+     */
+    public ProductsSampler(ModelPLEDGE model, Random random) {
+        this.model = model;
+        this.random = random;
+        solversCount = model.getParallelism();
+    }
+
+    /**
+     * Returns the number of solvers drawing products in parallel.
+     * @return the number of solvers.
+     */
+    public int getSolversCount() {
+        return solversCount;
+    }
+
+    /**
+     * Specifies the number of solvers drawing products in parallel.
+     * @param solversCount the number of solvers.
+     */
+    public void setSolversCount(int solversCount) {
+        if (solversCount < 1) {
+            throw new IllegalArgumentException("The number of solvers must be positive");
+        }
+        this.solversCount = solversCount;
+    }
+
+    /**
+     * Returns the capacity of the queues of the products drawn by the solvers.
+     * @return the maximum number of products waiting to be de-duplicated,
+     * shared evenly by the solvers.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Specifies the capacity of the queues of the products drawn by the solvers.
+     * @param queueCapacity the maximum number of products waiting to be de-duplicated,
+     * shared evenly by the solvers.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the queue must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Set the listener notified after each new product.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Draw distinct products at random.
+     * @param count the number of products to draw.
+     * @return a list of count different valid products.
+     * @throws Exception if a solver cannot be created or fails.
+     */
+    public List<Product> sample(int count) throws Exception {
+        List<Product> products = new ArrayList<Product>(count);
+        ProductsIndex productsIndex = new ProductsIndex();
+        List<BlockingQueue<Product>> queues = new ArrayList<BlockingQueue<Product>>(solversCount);
+        ExecutorService executor = Executors.newFixedThreadPool(solversCount);
+        try {
+            List<Future<Void>> samplers = new ArrayList<Future<Void>>(solversCount);
+            for (int i = 0; i < solversCount; i++) {
+                BlockingQueue<Product> queue = new ArrayBlockingQueue<Product>(Math.max(1, queueCapacity / solversCount));
+                queues.add(queue);
+                samplers.add(executor.submit(new Sampler(queue, new Random(random.nextLong()))));
+            }
+            int next = 0;
+            while (products.size() < count) {
+                Product product = queues.get(next).poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (product == null) {
+                    checkSamplers(samplers);
+                    continue;
+                }
+                next = (next + 1) % solversCount;
+                if (productsIndex.add(product)) {
+                    products.add(product);
+                    if (progressListener != null) {
+                        progressListener.progress(CURRENT_ACTION_SAMPLING + products.size(), (int) (products.size() / (double) count * 100));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return products;
+    }
+
+    /**
+     * Rethrow the exception of a sampler which stopped.
+     */
+    private void checkSamplers(List<Future<Void>> samplers) throws Exception {
+        for (Future<Void> sampler : samplers) {
+            if (sampler.isDone()) {
+                try {
+                    sampler.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws products from its own solver until it is interrupted.
+     */
+    private class Sampler implements Callable<Void> {
+
+        private final BlockingQueue<Product> queue;
+        private final Random random;
+
+        Sampler(BlockingQueue<Product> queue, Random random) {
+            this.queue = queue;
+            this.random = random;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            ProductsGenerator productsGenerator = new ProductsGenerator(model, random);
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        queue.put(productsGenerator.nextProduct());
+                    } catch (TimeoutException e) {
+                        // A timeout only ends the current draw.
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The sampler has enough products.
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+/**
+ * A listener notified of the progress of a long computation. It may be
+ * called by several threads.
+ *
+ * @author agent
+ */
+public interface ProgressListener {
+
+    /**
+     * Notify the progress of the computation.
+     * @param currentAction a description of the current step.
+     * @param progress the progress of the computation, between 0 and 100.
+     */
+    void progress(String currentAction, int progress);
+}
@@ -0,0 +1,69 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.Random;
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.IPhaseSelectionStrategy;
+
+/**
+ * A phase selection strategy choosing the polarity of the decision variables
+ * at random. Unlike the strategy provided by Sat4j, each instance draws from
+ * its own random generator, so that solvers used by different threads do not
+ * share it.
+ *
+ * @author agent
+ */
+public class RandomPhaseSelectionStrategy implements IPhaseSelectionStrategy {
+
+    static final long serialVersionUID = -6618469841127325814L;
+    private final Random random;
+
+    /**
+     * Create a random phase selection strategy.
+     * @param random the random generator choosing the polarities.
+     */
+    public RandomPhaseSelectionStrategy(Random random) {
+        this.random = random;
+    }
+
+    public void assignLiteral(int p) {
+    }
+
+    public void init(int nlength) {
+    }
+
+    public void init(int var, int p) {
+    }
+
+    public int select(int var) {
+        return random.nextBoolean() ? LiteralsUtils.posLit(var) : LiteralsUtils.negLit(var);
+    }
+
+    public void updateVar(int p) {
+    }
+
+    public void updateVarAtDecisionLevel(int q) {
+    }
+
+    @Override
+    public String toString() {
+        return "random phase selection";
+    }
+}
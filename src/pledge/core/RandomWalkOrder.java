@@ -0,0 +1,64 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.Random;
+import org.sat4j.minisat.orders.VarOrderHeap;
+
+/**
+ * A variable order choosing, with a given probability, the decision variable
+ * at random instead of by activity. Unlike the random walk decorator
+ * provided by Sat4j, which draws from a static random generator, each
+ * instance draws from its own one, so that the products of a solver only
+ * depend on the seed of its generator.
+ *
+ * @author agent
+ */
+public class RandomWalkOrder extends VarOrderHeap {
+
+    static final long serialVersionUID = -6618469841127325815L;
+    private final Random random;
+    private final double probability;
+
+    /**
+     * Create a random walk order choosing the polarities at random.
+     * @param random the random generator choosing the variables and their polarities.
+     * @param probability the probability to choose a decision variable at random.
+     */
+    public RandomWalkOrder(Random random, double probability) {
+        super(new RandomPhaseSelectionStrategy(random));
+        this.random = random;
+        this.probability = probability;
+    }
+
+    @Override
+    public int select() {
+        if (random.nextDouble() < probability) {
+            // Heap#get removes the variable, as VarOrderHeap#select does.
+            while (!heap.empty()) {
+                int var = heap.get(random.nextInt(heap.size()) + 1);
+                int next = getPhaseSelectionStrategy().select(var);
+                if (lits.isUnassigned(next)) {
+                    return next;
+                }
+            }
+        }
+        return super.select();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class finds the validity of pairs of literals without calling the
+ * solver. A pair containing a literal which is false in every product (the
+ * negation of a core feature or a dead feature) is invalid, and a literal
+ * which is true in every product forms a valid pair with any literal that
+ * is not always false. The binary clauses of the feature model form an
+ * implication graph: if a satisfiable literal x implies z, the pair (x, z)
+ * is valid and the pair (x, -z) is invalid.
+ *
+ * @author agent
+ */
+public class StaticPairsAnalysis {
+
+    private final ModelPLEDGE model;
+    private PairsSet validPairs;
+    private PairsSet invalidPairs;
+
+    /**
+     * Create an analysis of the feature model currently loaded. Its core and
+     * dead features must have been computed.
+     * @param model the model of the application.
+     */
+    public StaticPairsAnalysis(ModelPLEDGE model) {
+        this.model = model;
+    }
+
+    /**
+     * Compute the pairs whose validity follows from the core and dead
+     * features and from the binary clauses of the feature model.
+     */
+    public void analyze() {
+        int featuresCount = model.getFeaturesList().size();
+        int nbLiterals = featuresCount * 2;
+        validPairs = new PairsSet(featuresCount);
+        invalidPairs = new PairsSet(featuresCount);
+
+        boolean[] trueLiterals = new boolean[nbLiterals];
+        boolean[] falseLiterals = new boolean[nbLiterals];
+        Map<String, Integer> namesToFeaturesInt = model.getNamesToFeaturesInt();
+        for (String feature : model.getCoreFeatures()) {
+            int f = namesToFeaturesInt.get(feature);
+            trueLiterals[Product.literalToIndex(f)] = true;
+            falseLiterals[Product.literalToIndex(-f)] = true;
+        }
+        for (String feature : model.getDeadFeatures()) {
+            int f = namesToFeaturesInt.get(feature);
+            trueLiterals[Product.literalToIndex(-f)] = true;
+            falseLiterals[Product.literalToIndex(f)] = true;
+        }
+
+        for (int x = 0; x < nbLiterals; x++) {
+            if (falseLiterals[x]) {
+                for (int y = 0; y < nbLiterals; y++) {
+                    if (y != x && y != (x ^ 1)) {
+                        invalidPairs.add(Product.indexToLiteral(x), Product.indexToLiteral(y));
+                    }
+                }
+            } else if (trueLiterals[x]) {
+                for (int y = 0; y < nbLiterals; y++) {
+                    if (y != x && y != (x ^ 1) && !falseLiterals[y]) {
+                        validPairs.add(Product.indexToLiteral(x), Product.indexToLiteral(y));
+                    }
+                }
+            }
+        }
+
+        analyzeImplications(nbLiterals, falseLiterals);
+    }
+
+    /**
+     * Follow the implications of the binary clauses from each satisfiable literal.
+     * @param nbLiterals the number of literals of the features.
+     * @param falseLiterals the literals which are false in every product.
+     */
+    private void analyzeImplications(int nbLiterals, boolean[] falseLiterals) {
+        List<int[]> clauses = model.getFeatureModelClauses();
+        int nbNodes = nbLiterals;
+        int nbEdges = 0;
+        for (int[] clause : clauses) {
+            if (clause.length == 2 && clause[0] != clause[1] && clause[0] != -clause[1]) {
+                nbNodes = Math.max(nbNodes, Math.max(Product.literalToIndex(clause[0]), Product.literalToIndex(clause[1])) + 2);
+                nbEdges += 2;
+            }
+        }
+        if (nbEdges == 0) {
+            return;
+        }
+
+        // The clause (u or v) gives the implications -u -> v and -v -> u.
+        int[] firstEdge = new int[nbNodes + 1];
+        int[] targets = new int[nbEdges];
+        for (int[] clause : clauses) {
+            if (clause.length == 2 && clause[0] != clause[1] && clause[0] != -clause[1]) {
+                firstEdge[Product.literalToIndex(-clause[0]) + 1]++;
+                firstEdge[Product.literalToIndex(-clause[1]) + 1]++;
+            }
+        }
+        for (int i = 0; i < nbNodes; i++) {
+            firstEdge[i + 1] += firstEdge[i];
+        }
+        int[] next = firstEdge.clone();
+        for (int[] clause : clauses) {
+            if (clause.length == 2 && clause[0] != clause[1] && clause[0] != -clause[1]) {
+                targets[next[Product.literalToIndex(-clause[0])]++] = Product.literalToIndex(clause[1]);
+                targets[next[Product.literalToIndex(-clause[1])]++] = Product.literalToIndex(clause[0]);
+            }
+        }
+
+        int[] visited = new int[nbNodes];
+        int[] stack = new int[nbNodes];
+        for (int x = 0; x < nbLiterals; x++) {
+            if (falseLiterals[x] || firstEdge[x] == firstEdge[x + 1]) {
+                continue;
+            }
+            int literal = Product.indexToLiteral(x);
+            int top = 0;
+            stack[top++] = x;
+            visited[x] = x + 1;
+            while (top > 0) {
+                int node = stack[--top];
+                for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++) {
+                    int z = targets[e];
+                    if (visited[z] == x + 1) {
+                        continue;
+                    }
+                    visited[z] = x + 1;
+                    stack[top++] = z;
+                    if (z < nbLiterals && z != (x ^ 1)) {
+                        validPairs.add(literal, Product.indexToLiteral(z));
+                        invalidPairs.add(literal, -Product.indexToLiteral(z));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the pairs found valid by the last analysis.
+     * @return the set of the pairs known to be valid.
+     */
+    public PairsSet getValidPairs() {
+        return validPairs;
+    }
+
+    /**
+     * Returns the pairs found invalid by the last analysis.
+     * @return the set of the pairs known to be invalid.
+     */
+    public PairsSet getInvalidPairs() {
+        return invalidPairs;
+    }
+}
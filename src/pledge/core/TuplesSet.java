@@ -0,0 +1,381 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A set of t-tuples of signed literals, stored as a bit map indexed by the
+ * rank of the tuples in the combinatorial number system. The tuple of
+ * literals whose bit indices (see {@link Product#literalToIndex(int)}) are
+ * c1 &lt; c2 &lt; ... &lt; ct is stored at the bit C(c1, 1) + C(c2, 2) + ...
+ * + C(ct, t). The rank of a tuple does not depend on the number of features,
+ * so sets built for different feature counts can be merged.
+ *
+ * @author agent
+ */
+public class TuplesSet implements Serializable {
+
+    /**
+     * The smallest strength of the tuples.
+     */
+    public static final int MIN_STRENGTH = 2;
+    /**
+     * The largest strength of the tuples.
+     */
+    public static final int MAX_STRENGTH = 6;
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final long MAX_WORDS = Integer.MAX_VALUE - 8;
+    private final int strength;
+    private long[] words;
+    private long size;
+    static final long serialVersionUID = -6618469844567320417L;
+
+    /**
+     * Create an empty set of tuples.
+     * @param strength the number of literals of the tuples.
+     */
+    public TuplesSet(int strength) {
+        if (strength < MIN_STRENGTH || strength > MAX_STRENGTH) {
+            throw new IllegalArgumentException("The strength must be between " + MIN_STRENGTH + " and " + MAX_STRENGTH);
+        }
+        this.strength = strength;
+        words = new long[0];
+        size = 0;
+    }
+
+    /**
+     * Create an empty set of tuples able to hold the tuples of a given number
+     * of features without resizing.
+     * @param strength the number of literals of the tuples.
+     * @param nbFeatures the number of features of the feature model.
+     */
+    public TuplesSet(int strength, int nbFeatures) {
+        this(strength);
+        long tuplesCount = getTuplesCount(nbFeatures, strength);
+        if (tuplesCount > 0) {
+            words = new long[wordIndex(tuplesCount - 1) + 1];
+        }
+    }
+
+    /**
+     * Returns the binomial coefficient C(n, k).
+     * @param n the size of the set.
+     * @param k the size of the subsets.
+     * @return the number of subsets of k elements of a set of n elements.
+     * @throws ArithmeticException if the coefficient overflows a long.
+     */
+    public static long binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            // The product of i + 1 consecutive integers is divisible by (i + 1)!.
+            result = Math.multiplyExact(result, n - i) / (i + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tuples of literals of a given number of features.
+     * @param nbFeatures the number of features.
+     * @param strength the number of literals of the tuples.
+     * @return the number of ranks of the bit map of these features.
+     */
+    public static long getTuplesCount(int nbFeatures, int strength) {
+        long tuplesCount = binomial(nbFeatures * 2, strength);
+        if (tuplesCount > 0 && (tuplesCount - 1) >>> ADDRESS_BITS_PER_WORD >= MAX_WORDS) {
+            throw new IllegalArgumentException("Too many " + strength + "-tuples for " + nbFeatures + " features");
+        }
+        return tuplesCount;
+    }
+
+    /**
+     * Returns the rank of a tuple of literal bit indices.
+     * @param indices the bit indices of the literals, in increasing order.
+     * @return the position of the tuple in the bit map.
+     */
+    public static long rank(int[] indices) {
+        long rank = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0 && indices[i] <= indices[i - 1]) {
+                throw new IllegalArgumentException("A tuple needs different literals in increasing order");
+            }
+            rank += binomial(indices[i], i + 1);
+        }
+        return rank;
+    }
+
+    /**
+     * Computes the tuple of literal bit indices at a given rank.
+     * @param rank the position of the tuple in the bit map.
+     * @param indices the array receiving the bit indices, in increasing order.
+     * Its length is the strength of the tuple.
+     */
+    public static void unrank(long rank, int[] indices) {
+        for (int i = indices.length; i > 0; i--) {
+            // The largest c such that C(c, i) <= rank.
+            int c = i - 1;
+            int step = 1;
+            while (binomial(c + step, i) <= rank) {
+                c += step;
+                step *= 2;
+            }
+            while (step > 0) {
+                if (binomial(c + step, i) <= rank) {
+                    c += step;
+                }
+                step /= 2;
+            }
+            indices[i - 1] = c;
+            rank -= binomial(c, i);
+        }
+    }
+
+    /**
+     * Computes the tuple following another one in the order of the ranks.
+     * @param indices the bit indices of the tuple, in increasing order, which
+     * are replaced by the ones of the next tuple.
+     */
+    public static void next(int[] indices) {
+        int i = 0;
+        while (i < indices.length - 1 && indices[i] + 1 == indices[i + 1]) {
+            indices[i] = i;
+            i++;
+        }
+        indices[i]++;
+    }
+
+    /**
+     * Returns the sorted bit indices of some signed literals.
+     * @param literals the signed literals.
+     * @return the bit indices of the literals, in increasing order.
+     */
+    protected static int[] toIndices(int[] literals) {
+        int[] indices = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            indices[i] = Product.literalToIndex(literals[i]);
+        }
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Returns the index of the word holding the bit of a rank.
+     * @param rank the rank of a tuple.
+     * @return the index of its word.
+     */
+    protected static int wordIndex(long rank) {
+        return (int) (rank >>> ADDRESS_BITS_PER_WORD);
+    }
+
+    private void ensureCapacity(int wordIndex) {
+        if (wordIndex >= words.length) {
+            words = Arrays.copyOf(words, (int) Math.min(MAX_WORDS, Math.max(words.length * 2L, wordIndex + 1L)));
+        }
+    }
+
+    /**
+     * Adds the tuple of a rank to this set.
+     * @param rank the rank of the tuple.
+     * @return true if the tuple was not already in this set.
+     */
+    protected boolean set(long rank) {
+        int wordIndex = wordIndex(rank);
+        ensureCapacity(wordIndex);
+        long mask = 1L << rank;
+        if ((words[wordIndex] & mask) != 0) {
+            return false;
+        }
+        words[wordIndex] |= mask;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks if the tuple of a rank belongs to this set.
+     * @param rank the rank of the tuple.
+     * @return true if the tuple is in this set.
+     */
+    protected boolean get(long rank) {
+        int wordIndex = wordIndex(rank);
+        return wordIndex < words.length && (words[wordIndex] & (1L << rank)) != 0;
+    }
+
+    /**
+     * Returns the number of literals of the tuples of this set.
+     * @return the strength of this set.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Adds a tuple of signed literals to this set.
+     * @param literals the literals of the tuple, as many as the strength.
+     * @return true if the tuple was not already in this set.
+     */
+    public boolean add(int[] literals) {
+        if (literals.length != strength) {
+            throw new IllegalArgumentException("A tuple of this set has " + strength + " literals");
+        }
+        return set(rank(toIndices(literals)));
+    }
+
+    /**
+     * Checks if a tuple of signed literals belongs to this set.
+     * @param literals the literals of the tuple, as many as the strength.
+     * @return true if the tuple is in this set.
+     */
+    public boolean contains(int[] literals) {
+        return literals.length == strength && get(rank(toIndices(literals)));
+    }
+
+    /**
+     * Adds all the tuples covered by a product to this set.
+     * @param product the product to consider.
+     * @return the number of tuples which were not already in this set.
+     */
+    public long addProduct(Product product) {
+        int[] literals = product.toModel();
+        int count = literals.length;
+        if (count < strength) {
+            return 0;
+        }
+        long previousSize = size;
+        int[] indices = toIndices(literals);
+        long[][] binomials = new long[strength][count];
+        for (int i = 0; i < strength; i++) {
+            for (int j = i; j < count; j++) {
+                binomials[i][j] = binomial(indices[j], i + 1);
+            }
+        }
+        int[] positions = new int[strength];
+        long rank = 0;
+        for (int i = 0; i < strength; i++) {
+            positions[i] = count - strength + i;
+            rank += binomials[i][positions[i]];
+        }
+        ensureCapacity(wordIndex(rank));
+
+        for (int i = 0; i < strength; i++) {
+            positions[i] = i;
+        }
+        while (true) {
+            rank = 0;
+            for (int i = 0; i < strength; i++) {
+                rank += binomials[i][positions[i]];
+            }
+            int wordIndex = wordIndex(rank);
+            long mask = 1L << rank;
+            if ((words[wordIndex] & mask) == 0) {
+                words[wordIndex] |= mask;
+                size++;
+            }
+            int i = strength - 1;
+            while (i >= 0 && positions[i] == count - strength + i) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            positions[i]++;
+            for (int j = i + 1; j < strength; j++) {
+                positions[j] = positions[j - 1] + 1;
+            }
+        }
+        return size - previousSize;
+    }
+
+    /**
+     * Adds all the tuples of another set to this set.
+     * @param other the other set of tuples, of the same strength.
+     */
+    public void addAll(TuplesSet other) {
+        if (other.strength != strength) {
+            throw new IllegalArgumentException("The sets of tuples have different strengths");
+        }
+        long[] otherWords = other.words;
+        int length = otherWords.length;
+        while (length > 0 && otherWords[length - 1] == 0) {
+            length--;
+        }
+        if (length > 0) {
+            ensureCapacity(length - 1);
+        }
+        for (int i = 0; i < length; i++) {
+            long added = otherWords[i] & ~words[i];
+            if (added != 0) {
+                size += Long.bitCount(added);
+                words[i] |= added;
+            }
+        }
+    }
+
+    /**
+     * Adds the tuples of a range of words of another bit map to this set.
+     * This method may be called by several threads.
+     * @param fromWord the index of the first word of the range.
+     * @param bits the words of the range.
+     */
+    public synchronized void addWords(int fromWord, long[] bits) {
+        ensureCapacity(fromWord + bits.length - 1);
+        for (int i = 0; i < bits.length; i++) {
+            long added = bits[i] & ~words[fromWord + i];
+            if (added != 0) {
+                size += Long.bitCount(added);
+                words[fromWord + i] |= added;
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of a range of words of this set.
+     * This method may be called by several threads.
+     * @param fromWord the index of the first word of the range.
+     * @param toWord the index following the last word of the range.
+     * @return the words of the range, empty words past the end of this set.
+     */
+    public synchronized long[] getWords(int fromWord, int toWord) {
+        long[] bits = new long[toWord - fromWord];
+        if (fromWord < words.length) {
+            System.arraycopy(words, fromWord, bits, 0, Math.min(toWord, words.length) - fromWord);
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the number of words of the bit map of this set.
+     * @return the number of words, the ranks of the tuples being below 64 times this number.
+     */
+    public int getWordsCount() {
+        return words.length;
+    }
+
+    /**
+     * Returns the number of tuples in this set.
+     * @return the cardinality of this set.
+     */
+    public long size() {
+        return size;
+    }
+}
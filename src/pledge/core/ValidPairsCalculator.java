@@ -0,0 +1,319 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * This class computes the valid pairs of a feature model in parallel. The
+ * ranks of the pairs are split into shards of whole words of the
+ * {@link PairsSet}, and each thread checks its shards with its own solver.
+ * A pair covered by a valid configuration (a witness) is valid without
+ * asking the solver. The pairs of the products already drawn by the products
+ * generator of the model and of the configurations given as witnesses, which
+ * are checked once, are marked before the shards start. Each model returned
+ * by the solver then marks all the pairs it covers in a bitmap shared by the
+ * shards, which every shard reads before calling the solver. The pairs
+ * resolved by a {@link StaticPairsAnalysis} never reach the solver either.
+ *
+ * @author agent
+ */
+public class ValidPairsCalculator {
+
+    private static final String CURRENT_ACTION_SHARDS = "Computing the valid pairs of the model... shard ";
+    private static final int SHARDS_PER_THREAD = 4;
+    private static final int BITS_PER_WORD = 64;
+    private final ModelPLEDGE model;
+    private final List<Product> witnesses;
+    private final AtomicLong satCallsCount;
+    private boolean staticAnalysis;
+    private ProgressListener progressListener;
+
+    /**
+     * Create a calculator for the feature model currently loaded.
+     * @param model the model of the application.
+     */
+    public ValidPairsCalculator(ModelPLEDGE model) {
+        this.model = model;
+        witnesses = new ArrayList<Product>();
+        satCallsCount = new AtomicLong();
+        staticAnalysis = true;
+    }
+
+    /**
+     * Set whether the pairs resolved by the core and dead features and by the
+     * binary clauses of the feature model are skipped. It is the case by default.
+     * @param staticAnalysis true to run a static analysis before the shards.
+     */
+    public void setStaticAnalysis(boolean staticAnalysis) {
+        this.staticAnalysis = staticAnalysis;
+    }
+
+    /**
+     * Set the listener notified after each shard.
+     * @param progressListener the listener of the progress, or null.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Add configurations whose pairs are marked before calling the solver.
+     * Each configuration is checked once, so it may be partial or invalid.
+     * @param configurations the configurations to add.
+     */
+    public void addWitnesses(Collection<Product> configurations) {
+        witnesses.addAll(configurations);
+    }
+
+    /**
+     * Returns the number of satisfiability checks of the last computation.
+     * @return the number of calls to the solver.
+     */
+    public long getSatCallsCount() {
+        return satCallsCount.get();
+    }
+
+    /**
+     * Compute the valid pairs of the feature model on the pool of the model.
+     * @return the set of the pairs of literals allowed by the feature model.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public PairsSet compute() throws Exception {
+        return compute(model.getForkJoinPool());
+    }
+
+    /**
+     * Compute the valid pairs of the feature model.
+     * @param pool the pool running the shards.
+     * @return the set of the pairs of literals allowed by the feature model.
+     * @throws Exception if a solver cannot be created or if a satisfiability
+     * check fails.
+     */
+    public PairsSet compute(ForkJoinPool pool) throws Exception {
+        int featuresCount = model.getFeaturesList().size();
+        final PairsSet pairs = new PairsSet(featuresCount);
+        final long pairsCount = PairsSet.getPairsCount(featuresCount);
+        satCallsCount.set(0);
+        if (pairsCount == 0) {
+            return pairs;
+        }
+        final PairsSet witnessed = computeWitnessedPairs(featuresCount);
+        final PairsSet invalid;
+        if (staticAnalysis) {
+            StaticPairsAnalysis analysis = new StaticPairsAnalysis(model);
+            analysis.analyze();
+            witnessed.addAll(analysis.getValidPairs());
+            invalid = analysis.getInvalidPairs();
+        } else {
+            invalid = new PairsSet(featuresCount);
+        }
+
+        long wordsCount = (pairsCount + BITS_PER_WORD - 1) / BITS_PER_WORD;
+        final AtomicLongArray valid = new AtomicLongArray(witnessed.getWords(0, (int) wordsCount));
+        final int shardsCount = (int) Math.min(wordsCount, (long) pool.getParallelism() * SHARDS_PER_THREAD);
+        final AtomicInteger doneShards = new AtomicInteger();
+        final ThreadLocal<ISolver> solvers = new ThreadLocal<ISolver>();
+        List<Callable<Void>> shards = new ArrayList<Callable<Void>>(shardsCount);
+        for (int s = 0; s < shardsCount; s++) {
+            final int fromWord = (int) (wordsCount * s / shardsCount);
+            final int toWord = (int) (wordsCount * (s + 1) / shardsCount);
+            shards.add(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    ISolver solver = solvers.get();
+                    if (solver == null) {
+                        solver = model.createSolver();
+                        solvers.set(solver);
+                    }
+                    long fromRank = (long) fromWord * BITS_PER_WORD;
+                    long toRank = Math.min((long) toWord * BITS_PER_WORD, pairsCount);
+                    checkPairs(solver, fromRank, toRank, valid, invalid.getWords(fromWord, toWord), pairsCount);
+                    reportProgress(doneShards.incrementAndGet(), shardsCount);
+                    return null;
+                }
+            });
+        }
+
+        for (Future<Void> shard : pool.invokeAll(shards)) {
+            try {
+                shard.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        // Each valid pair was either witnessed or checked, and then covered by the model of the solver.
+        long[] bits = new long[(int) wordsCount];
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] = valid.get(w);
+        }
+        pairs.addWords(0, bits);
+        return pairs;
+    }
+
+    /**
+     * Compute the pairs covered by the products drawn by the products
+     * generator of the model, which are valid, and by the valid
+     * configurations among the witnesses.
+     * @param featuresCount the number of features of the feature model.
+     * @return the set of the pairs known to be valid.
+     * @throws Exception if the solver cannot be created or if a
+     * satisfiability check fails.
+     */
+    private PairsSet computeWitnessedPairs(int featuresCount) throws Exception {
+        List<Product> configurations = witnesses;
+        PairsSet witnessed = new PairsSet(featuresCount);
+        ProductsGenerator productsGenerator = model.getProductsGenerator();
+        if (productsGenerator != null) {
+            for (Product product : productsGenerator.getDrawnProducts()) {
+                Product witness = new Product(featuresCount);
+                for (int literal : product.toModel()) {
+                    if (Math.abs(literal) <= featuresCount) {
+                        witness.add(literal);
+                    }
+                }
+                witnessed.addProduct(witness);
+            }
+        }
+        if (configurations.isEmpty()) {
+            return witnessed;
+        }
+        ISolver solver = model.createSolver();
+        for (Product configuration : configurations) {
+            satCallsCount.incrementAndGet();
+            if (solver.isSatisfiable(new VecInt(configuration.toModel()))) {
+                Product witness = new Product(featuresCount);
+                for (int literal : solver.model()) {
+                    if (Math.abs(literal) <= featuresCount) {
+                        witness.add(literal);
+                    }
+                }
+                witnessed.addProduct(witness);
+            }
+        }
+        return witnessed;
+    }
+
+    /**
+     * Check the unknown pairs of a range of ranks. The valid ones are marked,
+     * with all the other pairs of the models found by the solver.
+     * @param solver the solver holding the constraints of the feature model.
+     * @param fromRank the first rank to check, at the start of a word.
+     * @param toRank the rank following the last one to check.
+     * @param valid the words of all the pairs known to be valid, shared by the shards.
+     * @param invalidBits the words of the range with the pairs known to be invalid.
+     * @param pairsCount the number of pairs of the feature model.
+     * @throws Exception if a satisfiability check fails.
+     */
+    private void checkPairs(ISolver solver, long fromRank, long toRank, AtomicLongArray valid, long[] invalidBits, long pairsCount) throws Exception {
+        IVecInt assumptions = new VecInt(2);
+        int[] pair = PairsSet.unrank(fromRank);
+        int a = pair[0];
+        int b = pair[1];
+        int fromWord = (int) (fromRank / BITS_PER_WORD);
+        for (long rank = fromRank; rank < toRank; rank++) {
+            int bit = (int) (rank - fromRank);
+            int word = (int) (rank / BITS_PER_WORD);
+            // The two literals of a feature are stored at the indices 2k and 2k + 1.
+            long known = valid.get(word) | invalidBits[word - fromWord];
+            if ((a ^ 1) != b && (known & (1L << bit)) == 0) {
+                assumptions.clear();
+                assumptions.push(Product.indexToLiteral(a));
+                assumptions.push(Product.indexToLiteral(b));
+                satCallsCount.incrementAndGet();
+                if (solver.isSatisfiable(assumptions)) {
+                    markWitnessedPairs(solver.model(), valid, pairsCount);
+                }
+            }
+            a++;
+            if (a == b) {
+                a = 0;
+                b++;
+            }
+        }
+    }
+
+    /**
+     * Set the bits of all the pairs covered by a model of the solver. The
+     * bits of a word are gathered before being set atomically, and the words
+     * whose bits are already set are not written.
+     * @param witness the model returned by the solver, one literal per variable.
+     * @param valid the words of the pairs known to be valid.
+     * @param pairsCount the number of pairs of the feature model.
+     */
+    private static void markWitnessedPairs(int[] witness, AtomicLongArray valid, long pairsCount) {
+        int count = witness.length;
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = Product.literalToIndex(witness[i]);
+        }
+        // The literals of a model are sorted by variable, so are their indices.
+        for (int j = 1; j < count; j++) {
+            long b = indices[j];
+            long base = b * (b - 1) / 2;
+            if (base >= pairsCount) {
+                break;
+            }
+            int word = -1;
+            long mask = 0;
+            for (int i = 0; i < j; i++) {
+                long rank = base + indices[i];
+                int rankWord = (int) (rank / BITS_PER_WORD);
+                if (rankWord != word) {
+                    setBits(valid, word, mask);
+                    word = rankWord;
+                    mask = 0;
+                }
+                mask |= 1L << rank;
+            }
+            setBits(valid, word, mask);
+        }
+    }
+
+    private static void setBits(AtomicLongArray words, int word, long mask) {
+        if (word < 0) {
+            return;
+        }
+        long bits = words.get(word);
+        while ((bits & mask) != mask && !words.compareAndSet(word, bits, bits | mask)) {
+            bits = words.get(word);
+        }
+    }
+
+    private void reportProgress(int doneShards, int shardsCount) {
+        if (progressListener != null) {
+            progressListener.progress(CURRENT_ACTION_SHARDS + doneShards + "/" + shardsCount, (int) (doneShards / (double) shardsCount * 100));
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class stores the valid tuples of feature models in a directory, so
+ * that they are computed once for all the processes analysing the same
+ * feature model. A file is named after a hash of the normalized clauses of
+ * the feature model and the strength of the tuples. It holds a header
+ * followed by the words of the {@link TuplesSet}, and is read by mapping it
+ * in memory. The exact number of products of a feature model is stored in a
+ * properties file named after the same hash.
+ *
+ * @author agent
+ */
+public class ValidTuplesCache {
+
+    private static final int MAGIC = 0x504C4447;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int CHUNK_WORDS = 1 << 27;
+    private static final String EXTENSION = ".tuples";
+    private static final String COUNT_EXTENSION = ".count";
+    private final File directory;
+
+    /**
+     * Create a cache of valid tuples.
+     * @param directory the path to the directory holding the files of the cache.
+     */
+    public ValidTuplesCache(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Returns the hash identifying the constraints of a feature model. The
+     * literals of each clause are sorted, duplicate literals, duplicate
+     * clauses and tautologies are removed, and the clauses are sorted, so
+     * that the hash does not depend on the order of the constraints.
+     * @param model the model of the application.
+     * @return the SHA-256 hash of the normalized clauses, in hexadecimal.
+     * @throws Exception if the hash algorithm is not available.
+     */
+    public static String getFeatureModelHash(ModelPLEDGE model) throws Exception {
+        List<int[]> clauses = new ArrayList<int[]>();
+        for (int[] clause : model.getFeatureModelClauses()) {
+            int[] literals = clause.clone();
+            Arrays.sort(literals);
+            boolean tautology = false;
+            for (int literal : literals) {
+                tautology |= Arrays.binarySearch(literals, -literal) >= 0;
+            }
+            int count = 0;
+            for (int literal : literals) {
+                if (count == 0 || literals[count - 1] != literal) {
+                    literals[count++] = literal;
+                }
+            }
+            if (!tautology) {
+                clauses.add(Arrays.copyOf(literals, count));
+            }
+        }
+        Collections.sort(clauses, new Comparator<int[]>() {
+
+            @Override
+            public int compare(int[] c1, int[] c2) {
+                int common = Math.min(c1.length, c2.length);
+                for (int i = 0; i < common; i++) {
+                    if (c1[i] != c2[i]) {
+                        return c1[i] < c2[i] ? -1 : 1;
+                    }
+                }
+                return c1.length - c2.length;
+            }
+        });
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        digest.update(buffer.putInt(0, model.getFeaturesList().size()).array());
+        int[] previous = null;
+        for (int[] clause : clauses) {
+            if (previous != null && Arrays.equals(previous, clause)) {
+                continue;
+            }
+            digest.update(buffer.putInt(0, clause.length).array());
+            for (int literal : clause) {
+                digest.update(buffer.putInt(0, literal).array());
+            }
+            previous = clause;
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    private File getFile(ModelPLEDGE model, int strength) throws Exception {
+        return new File(directory, getFeatureModelHash(model) + "-t" + strength + EXTENSION);
+    }
+
+    /**
+     * Load the valid tuples of a feature model.
+     * @param model the model of the application.
+     * @param strength the number of literals of the tuples.
+     * @return the valid tuples of the feature model, or null if they are not
+     * in the cache or cannot be read. A failure is logged.
+     * @throws Exception if the hash algorithm is not available.
+     */
+    public TuplesSet load(ModelPLEDGE model, int strength) throws Exception {
+        File file = getFile(model, strength);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return load(file, model.getFeaturesList().size(), strength);
+        } catch (IOException e) {
+            Logger.getLogger(ValidTuplesCache.class.getName()).log(Level.WARNING, "Cannot load the valid tuples from " + file, e);
+            return null;
+        }
+    }
+
+    private static TuplesSet load(File file, int featuresCount, int strength) throws IOException {
+        TuplesSet tuples = strength == 2 ? new PairsSet(featuresCount) : new TuplesSet(strength, featuresCount);
+        long wordsCount = (TuplesSet.getTuplesCount(featuresCount, strength) + 63) / 64;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() != HEADER_SIZE + wordsCount * 8) {
+                return null;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != strength
+                    || header.getInt() != featuresCount) {
+                return null;
+            }
+            long size = header.getLong();
+            if (header.getLong() != wordsCount) {
+                return null;
+            }
+            for (long fromWord = 0; fromWord < wordsCount; fromWord += CHUNK_WORDS) {
+                int chunkWords = (int) Math.min(CHUNK_WORDS, wordsCount - fromWord);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + fromWord * 8, chunkWords * 8L);
+                LongBuffer words = chunk.asLongBuffer();
+                long[] bits = new long[chunkWords];
+                words.get(bits);
+                tuples.addWords((int) fromWord, bits);
+            }
+            return tuples.size() == size ? tuples : null;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Store the valid tuples of a feature model. The file is written next to
+     * its final location and then renamed, so that a process never reads a
+     * partial file. A failure is logged and leaves the cache unchanged.
+     * @param model the model of the application.
+     * @param tuples the valid tuples of the feature model.
+     * @throws Exception if the hash algorithm is not available.
+     */
+    public void store(ModelPLEDGE model, TuplesSet tuples) throws Exception {
+        File file = getFile(model, tuples.getStrength());
+        int featuresCount = model.getFeaturesList().size();
+        long wordsCount = (TuplesSet.getTuplesCount(featuresCount, tuples.getStrength()) + 63) / 64;
+        File temp = null;
+        try {
+            directory.mkdirs();
+            temp = File.createTempFile(file.getName(), ".tmp", directory);
+            RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+            try {
+                FileChannel channel = raf.getChannel();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(tuples.getStrength()).putInt(featuresCount);
+                header.putLong(tuples.size()).putLong(wordsCount);
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                for (long fromWord = 0; fromWord < wordsCount; fromWord += CHUNK_WORDS) {
+                    int chunkWords = (int) Math.min(CHUNK_WORDS, wordsCount - fromWord);
+                    ByteBuffer chunk = ByteBuffer.allocate(chunkWords * 8);
+                    chunk.asLongBuffer().put(tuples.getWords((int) fromWord, (int) fromWord + chunkWords));
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            } finally {
+                raf.close();
+            }
+            move(temp, file);
+        } catch (IOException e) {
+            Logger.getLogger(ValidTuplesCache.class.getName()).log(Level.WARNING, "Cannot store the valid tuples in " + file, e);
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static void move(File temp, File file) throws IOException {
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Load the exact number of products of a feature model.
+     * @param model the model of the application.
+     * @return the number of products of the feature model, or null if it is
+     * not in the cache or cannot be read. A failure is logged.
+     * @throws Exception if the hash algorithm is not available.
+     */
+    public ModelCount loadCount(ModelPLEDGE model) throws Exception {
+        File file = new File(directory, getFeatureModelHash(model) + COUNT_EXTENSION);
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try {
+            FileInputStream in = new FileInputStream(file);
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+            ModelCount count = new ModelCount(new BigInteger(properties.getProperty("count")),
+                    Boolean.parseBoolean(properties.getProperty("exact")),
+                    Double.parseDouble(properties.getProperty("tolerance")),
+                    Double.parseDouble(properties.getProperty("confidence")));
+            // An estimation depends on the tolerance and the confidence of its counter.
+            return count.isExact() ? count : null;
+        } catch (IOException e) {
+            Logger.getLogger(ValidTuplesCache.class.getName()).log(Level.WARNING, "Cannot load the number of products from " + file, e);
+            return null;
+        } catch (RuntimeException e) {
+            // A missing or malformed property.
+            return null;
+        }
+    }
+
+    /**
+     * Store the number of products of a feature model, if it is exact. A
+     * failure is logged and leaves the cache unchanged.
+     * @param model the model of the application.
+     * @param count the number of products of the feature model.
+     * @throws Exception if the hash algorithm is not available.
+     */
+    public void storeCount(ModelPLEDGE model, ModelCount count) throws Exception {
+        if (!count.isExact()) {
+            return;
+        }
+        File file = new File(directory, getFeatureModelHash(model) + COUNT_EXTENSION);
+        Properties properties = new Properties();
+        properties.setProperty("count", count.getCount().toString());
+        properties.setProperty("exact", Boolean.toString(count.isExact()));
+        properties.setProperty("tolerance", Double.toString(count.getTolerance()));
+        properties.setProperty("confidence", Double.toString(count.getConfidence()));
+        File temp = null;
+        try {
+            directory.mkdirs();
+            temp = File.createTempFile(file.getName(), ".tmp", directory);
+            FileOutputStream out = new FileOutputStream(temp);
+            try {
+                properties.store(out, null);
+            } finally {
+                out.close();
+            }
+            move(temp, file);
+        } catch (IOException e) {
+            Logger.getLogger(ValidTuplesCache.class.getName()).log(Level.WARNING, "Cannot store the number of products in " + file, e);
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A distance matrix stored outside of the heap, either in direct buffers or
+ * in a memory-mapped file. The distances are split in chunks of at most 1 GB
+ * since a buffer cannot hold more than 2 GB. The buffers are freed and the
+ * file is deleted when the matrix is closed, so the matrix must not be used
+ * afterwards.
+ *
+ * @author agent
+ */
+public class BufferDistancesMatrix extends DistancesMatrix {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private final boolean floatPrecision;
+    private final int elementShift;
+    private final ByteBuffer[] chunks;
+    private final File file;
+    private RandomAccessFile randomAccessFile;
+
+    /**
+     * Create a distance matrix.
+     * @param size the number of products.
+     * @param floatPrecision true to store the distances as floats instead of doubles.
+     * @param file the file to map the distances to, or null to use direct buffers.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public BufferDistancesMatrix(int size, boolean floatPrecision, File file) throws IOException {
+        super(size);
+        this.floatPrecision = floatPrecision;
+        this.file = file;
+        elementShift = floatPrecision ? 2 : 3;
+        long bytes = getDistancesCount(size) << elementShift;
+        int nbChunks = (int) ((bytes + CHUNK_MASK) >>> CHUNK_BITS);
+        chunks = new ByteBuffer[nbChunks];
+        try {
+            FileChannel channel = null;
+            if (file != null) {
+                randomAccessFile = new RandomAccessFile(file, "rw");
+                randomAccessFile.setLength(bytes);
+                channel = randomAccessFile.getChannel();
+            }
+            for (int c = 0; c < nbChunks; c++) {
+                long start = (long) c << CHUNK_BITS;
+                int length = (int) Math.min(1L << CHUNK_BITS, bytes - start);
+                if (channel != null) {
+                    chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+                } else {
+                    chunks[c] = ByteBuffer.allocateDirect(length);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected double getAt(long index) {
+        long offset = index << elementShift;
+        ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int position = (int) (offset & CHUNK_MASK);
+        return floatPrecision ? chunk.getFloat(position) : chunk.getDouble(position);
+    }
+
+    @Override
+    protected void setAt(long index, double distance) {
+        long offset = index << elementShift;
+        ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)];
+        int position = (int) (offset & CHUNK_MASK);
+        if (floatPrecision) {
+            chunk.putFloat(position, (float) distance);
+        } else {
+            chunk.putDouble(position, distance);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int c = 0; c < chunks.length; c++) {
+            if (chunks[c] != null) {
+                free(chunks[c]);
+                chunks[c] = null;
+            }
+        }
+        if (randomAccessFile != null) {
+            randomAccessFile.close();
+            randomAccessFile = null;
+        }
+        if (file != null && file.exists() && !file.delete()) {
+            throw new IOException("Cannot delete the file " + file);
+        }
+    }
+
+    /**
+     * Release the memory of a direct or mapped buffer without waiting for the
+     * garbage collector, through sun.misc.Unsafe.invokeCleaner since Java 9
+     * or through the cleaner of the buffer in Java 8. If neither can be
+     * reached, the buffer is left to the garbage collector.
+     * @param buffer the buffer to release, which must not be used anymore.
+     */
+    private static void free(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                invokeCleaner = null;
+            }
+            if (invokeCleaner != null) {
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } else {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (Exception e) {
+            // The buffer is freed by the garbage collector.
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import pledge.core.ModelPLEDGE;
+import pledge.core.Product;
+
+/**
+ * This class represents the matrix of the distances between the products of a
+ * list. Only the upper triangle (i &lt; j) is stored, row after row, so that
+ * the distances of a row are contiguous.
+ *
+ * @author agent
+ */
+public abstract class DistancesMatrix implements Closeable {
+
+    /* The number of products. */
+    protected final int size;
+
+    /**
+     * Create a distance matrix.
+     * @param size the number of products.
+     */
+    protected DistancesMatrix(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Create a distance matrix for a given number of products. The matrix is
+     * kept on the heap when it fits the heap budget of the model, otherwise
+     * it is stored in a memory-mapped file of the spill directory, or in
+     * direct buffers if no spill directory is specified.
+     * @param model the model of the application (may be null to use the defaults).
+     * @param size the number of products.
+     * @return the distance matrix.
+     * @throws IOException if the memory-mapped file cannot be created.
+     */
+    public static DistancesMatrix create(ModelPLEDGE model, int size) throws IOException {
+        boolean floatPrecision = model != null && model.isDistancesFloatPrecision();
+        long heapBudget = model != null ? model.getDistancesHeapBudget() : ModelPLEDGE.getDefaultDistancesHeapBudget();
+        String spillDirectory = model != null ? model.getDistancesSpillDirectory() : null;
+        long count = getDistancesCount(size);
+        int elementSize = floatPrecision ? 4 : 8;
+
+        if (count * elementSize <= heapBudget && count <= Integer.MAX_VALUE - 8) {
+            if (floatPrecision) {
+                return new FloatDistancesMatrix(size);
+            }
+            return new DoubleDistancesMatrix(size);
+        }
+        File file = spillDirectory != null ? File.createTempFile("pledge-distances", ".bin", new File(spillDirectory)) : null;
+        return new BufferDistancesMatrix(size, floatPrecision, file);
+    }
+
+    /**
+     * Returns the number of distances stored for a given number of products.
+     * @param size the number of products.
+     * @return the number of pairs of products.
+     */
+    public static long getDistancesCount(int size) {
+        return (long) size * (size - 1) / 2;
+    }
+
+    /**
+     * Returns the number of products of this matrix.
+     * @return the number of products.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the distance between the products i and j.
+     * @param i the index of the first product.
+     * @param j the index of the second product, with j &gt; i.
+     * @return the position of the distance in the triangle.
+     */
+    protected long index(int i, int j) {
+        return (long) i * (2L * size - i - 1) / 2 + (j - i - 1);
+    }
+
+    /**
+     * Returns the distance between two different products.
+     * @param i the index of the first product.
+     * @param j the index of the second product.
+     * @return the distance between the products i and j.
+     */
+    public double get(int i, int j) {
+        return j > i ? getAt(index(i, j)) : getAt(index(j, i));
+    }
+
+    /**
+     * Specifies the distance between two different products.
+     * @param i the index of the first product.
+     * @param j the index of the second product.
+     * @param distance the distance between the products i and j.
+     */
+    public void set(int i, int j, double distance) {
+        setAt(j > i ? index(i, j) : index(j, i), distance);
+    }
+
+    /**
+     * Specifies the distances between the product i and the products j &gt; i.
+     * @param i the index of the product.
+     * @param distances the distances, distances[j] being the distance to the product j.
+     */
+    public void setRow(int i, double[] distances) {
+        long index = index(i, i + 1);
+        for (int j = i + 1; j < size; j++) {
+            setAt(index++, distances[j]);
+        }
+    }
+
+    /**
+     * Returns the sum of all the distances of this matrix, added one by one
+     * in the order of the rows, then of the columns.
+     * @return the sum of all the distances.
+     */
+    public double getSum() {
+        double sum = 0;
+        long count = getDistancesCount(size);
+        for (long index = 0; index < count; index++) {
+            sum += getAt(index);
+        }
+        return sum;
+    }
+
+    protected abstract double getAt(long index);
+
+    protected abstract void setAt(long index, double distance);
+
+    /**
+     * Compute the jaccard distances between all the products of a list.
+     * @param products the products, whose number is the size of this matrix.
+     * @return the sum of all the distances.
+     */
+    public double computeJaccardDistances(List<Product> products) {
+        return computeJaccardDistances(products, null);
+    }
+
+    /**
+     * Compute the jaccard distances between all the products of a list. The
+     * rows are split in blocks computed by the given pool. The distances are
+     * then added by {@link #getSum()} in a single sum, in the order of the
+     * original sequential computation, so the result does not depend on the
+     * parallelism.
+     * @param products the products, whose number is the size of this matrix.
+     * @param pool the pool computing the rows, or null to compute them in the current thread.
+     * @return the sum of all the distances.
+     */
+    public double computeJaccardDistances(List<Product> products, ForkJoinPool pool) {
+        RowsTask task = new RowsTask(products, 0, size);
+        if (pool == null || pool.getParallelism() <= 1) {
+            task.computeRows();
+        } else {
+            pool.invoke(task);
+        }
+        return getSum();
+    }
+
+    /**
+     * Computes the distances of a block of rows, splitting it in two halves
+     * of equal work while it is large enough.
+     */
+    private class RowsTask extends RecursiveAction {
+
+        private static final long MIN_DISTANCES = 1 << 14;
+        private static final long serialVersionUID = 4127532688153542206L;
+        private final List<Product> products;
+        private final int from, to;
+
+        RowsTask(List<Product> products, int from, int to) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+        }
+
+        private long distances(int from, int to) {
+            return getDistancesCount(size - from) - getDistancesCount(size - to);
+        }
+
+        @Override
+        protected void compute() {
+            long work = distances(from, to);
+            if (to - from > 1 && work > MIN_DISTANCES) {
+                int middle = from + 1;
+                while (middle < to - 1 && distances(from, middle) < work / 2) {
+                    middle++;
+                }
+                invokeAll(new RowsTask(products, from, middle), new RowsTask(products, middle, to));
+            } else {
+                computeRows();
+            }
+        }
+
+        void computeRows() {
+            double[] row = new double[size];
+            for (int i = from; i < to; i++) {
+                DistancesUtil.getJaccardDistances(products.get(i), products, i + 1, row);
+                setRow(i, row);
+            }
+        }
+    }
+
+    /**
+     * Release the resources held by this matrix.
+     * @throws IOException if the backing file cannot be released.
+     */
+    @Override
+    public void close() throws IOException {
+    }
+}
@@ -20,8 +20,7 @@
  */
 package pledge.core.techniques;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import pledge.core.Product;
 
 /**
@@ -32,17 +31,47 @@ import pledge.core.Product;
  */
 public class DistancesUtil {
 
+    public static final double JACCARD_WEIGHT = 1.0;
+    public static final double DICE_WEIGHT = 0.5;
+    public static final double ANTI_DICE_WEIGHT = 2.0;
+
     private static double getSetBasedDistance(Product p1, Product p2, double weight) {
-        Set<Integer> intersection = new HashSet<Integer>(p1);
-        Set<Integer> union = new HashSet<Integer>(p1);
-        intersection.retainAll(p2);
-        union.addAll(p2);
-        double intersectionSize = intersection.size();
-        double unionSize = union.size();
+        double intersectionSize = p1.intersectionSize(p2);
+        double unionSize = p1.size() + p2.size() - intersectionSize;
 
         return 1.0 - (intersectionSize / (intersectionSize + weight * (unionSize - intersectionSize)));
     }
 
+    /**
+     * Compute the set based distances between a product and a range of products.
+     * The distance to products.get(j) is stored in distances[j], for each j
+     * from the given index to the end of the list.
+     * @param p the product to consider.
+     * @param products the products to measure the distance to.
+     * @param from the index of the first product of the list to consider.
+     * @param weight the weight of the distance (see the *_WEIGHT constants).
+     * @param distances the array receiving the distances.
+     */
+    public static void getSetBasedDistances(Product p, List<Product> products, int from, double weight, double[] distances) {
+        int size = products.size();
+        for (int j = from; j < size; j++) {
+            distances[j] = getSetBasedDistance(p, products.get(j), weight);
+        }
+    }
+
+    /**
+     * Compute the jaccard distances between a product and a range of products.
+     * The distance to products.get(j) is stored in distances[j], for each j
+     * from the given index to the end of the list.
+     * @param p the product to consider.
+     * @param products the products to measure the distance to.
+     * @param from the index of the first product of the list to consider.
+     * @param distances the array receiving the distances.
+     */
+    public static void getJaccardDistances(Product p, List<Product> products, int from, double[] distances) {
+        getSetBasedDistances(p, products, from, JACCARD_WEIGHT, distances);
+    }
+
     /**
      * Return the jaccard distance between two products.
      * @param p1 the first product to consider.
@@ -50,7 +79,7 @@ public class DistancesUtil {
      * @return the resulting jaccard distance between p1 and p2
      */
     public static double getJaccardDistance(Product p1, Product p2) {
-        return getSetBasedDistance(p1, p2, 1.0);
+        return getSetBasedDistance(p1, p2, JACCARD_WEIGHT);
     }
 
     /**
@@ -60,7 +89,7 @@ public class DistancesUtil {
      * @return the resulting dice distance between p1 and p2
      */
     public static double getDiceDistance(Product p1, Product p2) {
-        return getSetBasedDistance(p1, p2, 0.5);
+        return getSetBasedDistance(p1, p2, DICE_WEIGHT);
     }
 
     /**
@@ -70,6 +99,6 @@ public class DistancesUtil {
      * @return the resulting anti dice distance between p1 and p2
      */
     public static double getAntiDiceDistance(Product p1, Product p2) {
-        return getSetBasedDistance(p1, p2, 2.0);
+        return getSetBasedDistance(p1, p2, ANTI_DICE_WEIGHT);
     }
 }
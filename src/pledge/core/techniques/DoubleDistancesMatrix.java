@@ -0,0 +1,54 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques;
+
+/**
+ * A distance matrix stored on the heap with a double precision.
+ *
+ * @author agent
+ */
+public class DoubleDistancesMatrix extends DistancesMatrix {
+
+    private final double[] distances;
+
+    /**
+     * Create a distance matrix.
+     * @param size the number of products.
+     */
+    public DoubleDistancesMatrix(int size) {
+        super(size);
+        distances = new double[(int) getDistancesCount(size)];
+    }
+
+    @Override
+    protected double getAt(long index) {
+        return distances[(int) index];
+    }
+
+    @Override
+    protected void setAt(long index, double distance) {
+        distances[(int) index] = distance;
+    }
+
+    @Override
+    public void setRow(int i, double[] row) {
+        int index = (int) index(i, i + 1);
+        System.arraycopy(row, i + 1, distances, index, size - i - 1);
+    }
+}
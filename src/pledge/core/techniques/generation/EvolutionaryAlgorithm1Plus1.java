@@ -20,7 +20,6 @@
 package pledge.core.techniques.generation;
 
 import java.util.List;
-import java.util.Random;
 import pledge.core.ModelPLEDGE;
 import pledge.core.Product;
 import pledge.core.techniques.prioritization.PrioritizationTechnique;
@@ -34,7 +33,6 @@ import pledge.core.techniques.prioritization.PrioritizationTechnique;
 public class EvolutionaryAlgorithm1Plus1 implements GenerationTechnique {
 
     public static final String NAME = "(1+1) Evolutionary Algorithm";
-    private static final Random random = new Random();
 
     /**
      * Generate products.
@@ -48,10 +46,25 @@ public class EvolutionaryAlgorithm1Plus1 implements GenerationTechnique {
     @Override
     public List<Product> generateProducts(ModelPLEDGE model, int nbProducts, long timeAllowed, PrioritizationTechnique prioritizationTechnique) throws Exception {
         long startTimeMS = System.currentTimeMillis();
-        Individual indiv = new Individual(model, model.getUnpredictableProducts(nbProducts), prioritizationTechnique);
-        indiv.fitnessAndOrdering();
+        Individual indiv = new Individual(model, model.getInitialProducts(nbProducts), prioritizationTechnique);
         int nbIter = 0;
 
+        if (model.isIncrementalEvaluation()) {
+            try {
+                indiv.incrementalFitnessAndOrdering();
+                while (System.currentTimeMillis() - startTimeMS < timeAllowed) {
+                    model.setCurrentAction("Iteration number " + (nbIter + 1));
+                    indiv.mutateIncremental(Individual.MUTATE_WORST, model);
+                    nbIter++;
+                    model.setProgress((int) ((System.currentTimeMillis() - startTimeMS) / (double) timeAllowed * 100.0));
+                }
+            } finally {
+                indiv.releaseDistances();
+            }
+            return indiv.getProducts();
+        }
+
+        indiv.fitnessAndOrdering();
         while (System.currentTimeMillis() - startTimeMS < timeAllowed) {
             model.setCurrentAction("Iteration number " + (nbIter + 1));
             Individual newIndiv = new Individual(model, indiv, prioritizationTechnique);
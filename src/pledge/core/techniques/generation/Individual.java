@@ -19,11 +19,17 @@
  */
 package pledge.core.techniques.generation;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import pledge.core.ModelPLEDGE;
 import pledge.core.Product;
+import pledge.core.ProductsGenerator;
+import pledge.core.ProductsIndex;
+import pledge.core.techniques.DistancesMatrix;
 import pledge.core.techniques.DistancesUtil;
+import pledge.core.techniques.prioritization.PrioritizationResult;
 import pledge.core.techniques.prioritization.PrioritizationTechnique;
 
 /**
@@ -40,23 +46,106 @@ public class Individual implements Comparable<Individual> {
     private List<Product> products;
     private PrioritizationTechnique prioritizationTechnique;
     private ModelPLEDGE model;
+    private ProductsGenerator productsGenerator;
+    /* The distances between the products, the sum of the distances of each
+     * product and the prioritized order, kept by the incremental evaluation.
+     * The products are then stored in their original order, and the order is
+     * only computed again when the products are read.     */
+    private DistancesMatrix distancesMatrix;
+    private double[] distancesSums;
+    private int[] order;
+    private boolean orderChanged;
+    /* The index of the products, built by the first mutation. */
+    private ProductsIndex productsIndex;
 
     public Individual(ModelPLEDGE model, Individual other, PrioritizationTechnique prioritizationTechnique) {
         products = new ArrayList(other.products);
         fitness = -1;
         this.prioritizationTechnique = prioritizationTechnique;
         this.model = model;
+        this.productsGenerator = other.productsGenerator;
     }
 
     public Individual(ModelPLEDGE model, List<Product> products, PrioritizationTechnique prioritizationTechnique) {
+        this(model, products, prioritizationTechnique, model.getProductsGenerator());
+    }
+
+    /**
+     * Create an individual whose mutations draw the new products from a given generator.
+     * @param model the application's model.
+     * @param products the products of the individual.
+     * @param prioritizationTechnique the prioritization technique computing the fitness.
+     * @param productsGenerator the generator of the new products.
+     */
+    public Individual(ModelPLEDGE model, List<Product> products, PrioritizationTechnique prioritizationTechnique, ProductsGenerator productsGenerator) {
         this.products = products;
         this.prioritizationTechnique = prioritizationTechnique;
         this.model = model;
+        this.productsGenerator = productsGenerator;
     }
 
     public void fitnessAndOrdering() throws Exception {
-        products = prioritizationTechnique.prioritize(model, products);
-        fitness = prioritizationTechnique.getFitnessSum();
+        PrioritizationResult result = prioritizationTechnique.prioritize(model, products, false);
+        products = new ArrayList<Product>(result.getProducts());
+        fitness = result.getFitness();
+    }
+
+    /**
+     * Compute the fitness and the ordering of the products, keeping their
+     * distances so that the mutations can be evaluated incrementally.
+     * @throws Exception if an error occurs during the prioritization.
+     */
+    public void incrementalFitnessAndOrdering() throws Exception {
+        PrioritizationResult result = prioritizationTechnique.prioritize(model, products, true);
+        distancesMatrix = result.getDistancesMatrix();
+        order = result.getOrder();
+        orderChanged = false;
+        distancesSums = new double[products.size()];
+        computeDistancesSums();
+    }
+
+    /**
+     * Compute the fitness and the sum of the distances of each product from
+     * the distances matrix, so that the rounding errors of the incremental
+     * updates do not add up over the mutations.
+     */
+    private void computeDistancesSums() {
+        int size = products.size();
+        Arrays.fill(distancesSums, 0);
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double distance = distancesMatrix.get(i, j);
+                distancesSums[i] += distance;
+                distancesSums[j] += distance;
+            }
+        }
+        fitness = distancesMatrix.getSum();
+    }
+
+    /**
+     * Release the distances kept by the incremental evaluation.
+     * @throws IOException if the distances cannot be released.
+     */
+    public void releaseDistances() throws IOException {
+        if (distancesMatrix != null) {
+            updateOrder();
+            distancesMatrix.close();
+            distancesMatrix = null;
+            distancesSums = null;
+        }
+    }
+
+    /**
+     * Prioritize the products again if a mutation changed them since the
+     * last prioritization. The fitness and the sums of the distances are then
+     * computed again from the distances matrix.
+     */
+    private void updateOrder() {
+        if (orderChanged) {
+            order = prioritizationTechnique.prioritize(distancesMatrix);
+            computeDistancesSums();
+            orderChanged = false;
+        }
     }
 
     public void fitness() {
@@ -73,6 +162,9 @@ public class Individual implements Comparable<Individual> {
 
 
     public double getFitness() {
+        if (orderChanged) {
+            updateOrder();
+        }
         return fitness;
     }
 
@@ -81,32 +173,112 @@ public class Individual implements Comparable<Individual> {
     }
 
     public List<Product> getProducts() {
-        return products;
+        if (order == null) {
+            return products;
+        }
+        updateOrder();
+        List<Product> prioritizedProducts = new ArrayList<Product>(order.length);
+        for (int i : order) {
+            prioritizedProducts.add(products.get(i));
+        }
+        return prioritizedProducts;
     }
 
 
 
-    public void mutate(int mutateType, ModelPLEDGE model) throws Exception {
-
+    private Product getNewProduct() throws Exception {
+        if (productsIndex == null) {
+            productsIndex = new ProductsIndex(products);
+        }
         Product p;
         do {
-            p = model.getUnpredictableProducts(1).get(0);
-        } while (products.contains(p));
+            p = productsGenerator.nextProduct();
+        } while (productsIndex.contains(p));
+        return p;
+    }
+
+    private void setProduct(int position, Product p) {
+        Product replaced = products.set(position, p);
+        productsIndex.remove(replaced);
+        productsIndex.add(p);
+    }
+
+    private int getMutatedPosition(int mutateType) {
         switch (mutateType) {
             case MUTATE_WORST:
-                products.set(products.size() - 1, p);
-                break;
+                return products.size() - 1;
             case MUTATE_BEST:
-                products.set(0, p);
-                break;
+                return 0;
             case MUTATE_RANDOM:
-                int ind = (int) (Math.random() * (products.size() - 2)) + 1;
-                products.set(ind, p);
-                break;
+                // Drawn from the generator of the individual, so that the mutations depend on its seed.
+                return products.size() > 2 ? productsGenerator.getRandom().nextInt(products.size() - 2) + 1 : 1;
             default:
-                ;
+                return -1;
         }
+    }
+
+    public void mutate(int mutateType, ModelPLEDGE model) throws Exception {
+        Product p = getNewProduct();
+        int position = getMutatedPosition(mutateType);
+        if (position >= 0) {
+            setProduct(position, p);
+        }
+    }
 
+    /**
+     * Returns the index of the product replaced by an incremental mutation,
+     * which is the one at the mutated position of the prioritized order, as
+     * for {@link #mutate(int, ModelPLEDGE)}.
+     */
+    private int getMutatedIndex(int mutateType) {
+        updateOrder();
+        int position = getMutatedPosition(mutateType);
+        return position >= 0 ? order[position] : -1;
+    }
+
+    /**
+     * Replace a product by a new one if this increases the fitness. Only the
+     * distances between the new product and the other ones are computed, the
+     * individual must have been evaluated by {@link #incrementalFitnessAndOrdering()}.
+     * The fitness is updated by the difference of the distances, and the
+     * products are only prioritized again, and their fitness computed again
+     * from the distances, after a mutation replaced one of them, so that an
+     * iteration rejecting the new product takes a linear time in the number
+     * of products.
+     * @param mutateType the product to replace (MUTATE_WORST, ...)
+     * @param model the application's model.
+     * @return true if the product was replaced.
+     * @throws Exception if an error occurs while generating the new product.
+     */
+    public boolean mutateIncremental(int mutateType, ModelPLEDGE model) throws Exception {
+        Product p = getNewProduct();
+        int replaced = getMutatedIndex(mutateType);
+        if (replaced < 0) {
+            return false;
+        }
+        int size = products.size();
+        double[] distances = new double[size];
+        DistancesUtil.getJaccardDistances(p, products, 0, distances);
+        distances[replaced] = 0;
+        double sum = 0;
+        for (int j = 0; j < size; j++) {
+            sum += distances[j];
+        }
+        double delta = sum - distancesSums[replaced];
+        if (delta > 0) {
+            setProduct(replaced, p);
+            for (int j = 0; j < size; j++) {
+                if (j != replaced) {
+                    distancesSums[j] += distances[j] - distancesMatrix.get(replaced, j);
+                    distancesMatrix.set(replaced, j, distances[j]);
+                }
+            }
+            distancesSums[replaced] = sum;
+            fitness += delta;
+            orderChanged = true;
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -0,0 +1,227 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import pledge.core.ModelPLEDGE;
+import pledge.core.Product;
+import pledge.core.ProductsGenerator;
+import pledge.core.techniques.prioritization.PrioritizationTechnique;
+
+/**
+ * This class runs several (1+1) evolutionary algorithms in parallel, each
+ * island drawing its products from its own solver. The islands are arranged
+ * in a ring: periodically, each island publishes its best individual and
+ * adopts the one published by its predecessor if it is fitter. The solver of
+ * each island is seeded from the seed of the model.
+ *
+ * @author agent
+ */
+public class IslandEvolutionaryAlgorithm implements GenerationTechnique {
+
+    public static final String NAME = "Island (1+1) Evolutionary Algorithm";
+    public static final long DEFAULT_MIGRATION_INTERVAL_MS = 1000;
+    private int nbIslands = 0;
+    private long migrationIntervalMS = DEFAULT_MIGRATION_INTERVAL_MS;
+
+    /**
+     * Returns the number of islands.
+     * @return the number of islands, or 0 to use the parallelism level of the model.
+     */
+    public int getNbIslands() {
+        return nbIslands;
+    }
+
+    /**
+     * Specifies the number of islands.
+     * @param nbIslands the number of islands, or 0 to use the parallelism level of the model.
+     */
+    public void setNbIslands(int nbIslands) {
+        this.nbIslands = nbIslands;
+    }
+
+    /**
+     * Returns the time between two migrations.
+     * @return the time between two migrations in ms.
+     */
+    public long getMigrationIntervalMS() {
+        return migrationIntervalMS;
+    }
+
+    /**
+     * Specifies the time between two migrations.
+     * @param migrationIntervalMS the time between two migrations in ms.
+     */
+    public void setMigrationIntervalMS(long migrationIntervalMS) {
+        this.migrationIntervalMS = migrationIntervalMS;
+    }
+
+    /**
+     * Generate products.
+     * @param model the application's modeL
+     * @param nbProducts the number of products to generate.
+     * @param timeAllowed the time allowed in seconds to generate products.
+     * @param prioritizationTechnique the prioritization technique to use.
+     * @return a list containing the generated products.
+     * @throws Exception if a problem occurs during the generation.
+     */
+    @Override
+    public List<Product> generateProducts(ModelPLEDGE model, int nbProducts, long timeAllowed, PrioritizationTechnique prioritizationTechnique) throws Exception {
+        long startTimeMS = System.currentTimeMillis();
+        int islandsCount = nbIslands > 0 ? nbIslands : model.getParallelism();
+        AtomicReferenceArray<Migrant> migrants = new AtomicReferenceArray<Migrant>(islandsCount);
+        ExecutorService executor = Executors.newFixedThreadPool(islandsCount);
+        try {
+            List<Future<Individual>> islands = new ArrayList<Future<Individual>>(islandsCount);
+            for (int i = 0; i < islandsCount; i++) {
+                // The generators are seeded in the order of the islands, before any of them starts.
+                islands.add(executor.submit(new Island(i, migrants, model, model.createRandom(), nbProducts, startTimeMS, timeAllowed, prioritizationTechnique)));
+            }
+            Individual best = null;
+            for (Future<Individual> island : islands) {
+                Individual indiv;
+                try {
+                    indiv = island.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+                if (best == null || indiv.getFitness() > best.getFitness()) {
+                    best = indiv;
+                }
+            }
+            return best.getProducts();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the name of this technique.
+     * @return a String representing the name of this technique.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * The best individual published by an island.
+     */
+    private static class Migrant {
+
+        private final List<Product> products;
+        private final double fitness;
+
+        Migrant(Individual indiv) {
+            products = new ArrayList<Product>(indiv.getProducts());
+            fitness = indiv.getFitness();
+        }
+    }
+
+    /**
+     * A (1+1) evolutionary algorithm exchanging its best individual with the
+     * other islands.
+     */
+    private class Island implements Callable<Individual> {
+
+        private final int index;
+        private final AtomicReferenceArray<Migrant> migrants;
+        private final ModelPLEDGE model;
+        private final Random random;
+        private final int nbProducts;
+        private final long startTimeMS, timeAllowed;
+        private final PrioritizationTechnique prioritizationTechnique;
+        private ProductsGenerator productsGenerator;
+
+        Island(int index, AtomicReferenceArray<Migrant> migrants, ModelPLEDGE model, Random random, int nbProducts, long startTimeMS, long timeAllowed, PrioritizationTechnique prioritizationTechnique) {
+            this.index = index;
+            this.migrants = migrants;
+            this.model = model;
+            this.random = random;
+            this.nbProducts = nbProducts;
+            this.startTimeMS = startTimeMS;
+            this.timeAllowed = timeAllowed;
+            this.prioritizationTechnique = prioritizationTechnique;
+        }
+
+        private Individual evaluate(List<Product> products) throws Exception {
+            Individual indiv = new Individual(model, products, prioritizationTechnique, productsGenerator);
+            if (model.isIncrementalEvaluation()) {
+                indiv.incrementalFitnessAndOrdering();
+            } else {
+                indiv.fitnessAndOrdering();
+            }
+            return indiv;
+        }
+
+        @Override
+        public Individual call() throws Exception {
+            productsGenerator = new ProductsGenerator(model, random);
+            Individual indiv = evaluate(model.isUniformSampling()
+                    ? model.getUniformProducts(nbProducts, productsGenerator.getRandom())
+                    : productsGenerator.getUnpredictableProducts(nbProducts));
+            try {
+                long nextMigrationMS = startTimeMS + migrationIntervalMS;
+                int nbIter = 0;
+
+                while (System.currentTimeMillis() - startTimeMS < timeAllowed && !Thread.currentThread().isInterrupted()) {
+                    if (model.isIncrementalEvaluation()) {
+                        indiv.mutateIncremental(Individual.MUTATE_WORST, model);
+                    } else {
+                        Individual newIndiv = new Individual(model, indiv, prioritizationTechnique);
+                        newIndiv.mutate(Individual.MUTATE_WORST, model);
+                        newIndiv.fitnessAndOrdering();
+                        if (newIndiv.getFitness() > indiv.getFitness()) {
+                            indiv = newIndiv;
+                        }
+                    }
+                    nbIter++;
+
+                    long now = System.currentTimeMillis();
+                    if (now >= nextMigrationMS) {
+                        int count = migrants.length();
+                        migrants.set(index, new Migrant(indiv));
+                        Migrant migrant = migrants.get((index + count - 1) % count);
+                        if (migrant != null && migrant.fitness > indiv.getFitness()) {
+                            indiv.releaseDistances();
+                            indiv = evaluate(new ArrayList<Product>(migrant.products));
+                        }
+                        nextMigrationMS = now + migrationIntervalMS;
+                    }
+                    if (index == 0) {
+                        model.setCurrentAction("Iteration number " + (nbIter + 1));
+                        model.setProgress((int) ((now - startTimeMS) / (double) timeAllowed * 100.0));
+                    }
+                }
+            } finally {
+                // Release the distances of the last individual even if an iteration fails.
+                indiv.releaseDistances();
+            }
+            return indiv;
+        }
+    }
+}
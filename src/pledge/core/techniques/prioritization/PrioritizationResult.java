@@ -0,0 +1,92 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.prioritization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import pledge.core.Product;
+import pledge.core.techniques.DistancesMatrix;
+
+/**
+ * This class represents the result of a prioritization: the prioritized
+ * products, their fitness and, if it was requested, the matrix of their
+ * distances. A result is immutable, except for the distance matrix which is
+ * owned by the caller.
+ *
+ * @author agent
+ */
+public final class PrioritizationResult {
+
+    private final List<Product> products;
+    private final int[] order;
+    private final double fitness;
+    private final DistancesMatrix distancesMatrix;
+
+    /**
+     * Create a prioritization result.
+     * @param products the products that were prioritized, in their original order.
+     * @param order the indices of the products, in prioritized order.
+     * @param fitness the fitness sum associated to the products.
+     * @param distancesMatrix the distances between the products (in their original order), or null.
+     */
+    public PrioritizationResult(List<Product> products, int[] order, double fitness, DistancesMatrix distancesMatrix) {
+        List<Product> prioritizedProducts = new ArrayList<Product>(order.length);
+        for (int i : order) {
+            prioritizedProducts.add(products.get(i));
+        }
+        this.products = Collections.unmodifiableList(prioritizedProducts);
+        this.order = order.clone();
+        this.fitness = fitness;
+        this.distancesMatrix = distancesMatrix;
+    }
+
+    /**
+     * Returns the prioritized list of products.
+     * @return an unmodifiable list of the products, in prioritized order.
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Returns the prioritized order of the products.
+     * @return the indices of the products in the original list, in prioritized order.
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Return the fitness sum associated to the products.
+     * @return a double representing the fitness sum associated to the products.
+     */
+    public double getFitness() {
+        return fitness;
+    }
+
+    /**
+     * Returns the distances between the products, indexed by their position in
+     * the original list. The caller is responsible for closing it.
+     * @return the distance matrix, or null if it was not kept.
+     */
+    public DistancesMatrix getDistancesMatrix() {
+        return distancesMatrix;
+    }
+}
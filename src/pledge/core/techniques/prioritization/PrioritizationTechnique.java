@@ -22,6 +22,7 @@ package pledge.core.techniques.prioritization;
 import java.util.List;
 import pledge.core.ModelPLEDGE;
 import pledge.core.Product;
+import pledge.core.techniques.DistancesMatrix;
 
 
 
@@ -33,13 +34,35 @@ import pledge.core.Product;
 public interface PrioritizationTechnique {
     
     /**
-     * Returns the prioritized list of products.
+     * Prioritize a list of products. This method does not modify the state of
+     * the technique and may be called by several threads.
+     * @param model the model of the application.
+     * @param products the list of products to prioritize.
+     * @param keepDistances true to keep the distance matrix in the result.
+     * @return the result of the prioritization.
+     * @throws Exception if an error occurs during the prioritization.
+     */
+    public PrioritizationResult prioritize(ModelPLEDGE model, List<Product> products, boolean keepDistances) throws Exception;
+
+    /**
+     * Returns the prioritized list of products. The fitness sum is then
+     * available through {@link #getFitnessSum()}, which is not safe when the
+     * technique is shared by several threads.
      * @param model the model of the application.
      * @param products the list of products to prioritize.
      * @return the prioritized list of products.
      * @throws Exception if an error occurs during the prioritization.
+     * @deprecated use {@link #prioritize(ModelPLEDGE, List, boolean)} instead.
      */
+    @Deprecated
     public List<Product> prioritize(ModelPLEDGE model, List<Product> products) throws Exception;
+
+    /**
+     * Returns the prioritized order of products whose distances are known.
+     * @param distancesMatrix the distances between the products.
+     * @return the indices of the products, in prioritized order.
+     */
+    public int[] prioritize(DistancesMatrix distancesMatrix);
     
     /**
      * Return the name of this technique.
@@ -48,8 +71,11 @@ public interface PrioritizationTechnique {
     public String getName();
     
     /**
-     * Return the fitness sum associated to the products.
+     * Return the fitness sum associated to the products of the last call to
+     * {@link #prioritize(ModelPLEDGE, List)}.
      * @return a double representing the fitness sum associated to the products.
+     * @deprecated use {@link PrioritizationResult#getFitness()} instead.
      */
+    @Deprecated
     public double getFitnessSum();
 }
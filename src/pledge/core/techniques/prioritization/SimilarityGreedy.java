@@ -19,96 +19,99 @@
  */
 package pledge.core.techniques.prioritization;
 
-import java.util.ArrayList;
-import java.util.List;
-import pledge.core.ModelPLEDGE;
-import pledge.core.Product;
-import pledge.core.techniques.DistancesUtil;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import pledge.core.techniques.DistancesMatrix;
 
 /**
  *
  * @author Christopher Henard
  */
-public class SimilarityGreedy implements PrioritizationTechnique {
+public class SimilarityGreedy extends SimilarityTechnique {
 
     public static final String NAME = "Similarity / Greedy";
-    private double fitnessSum;
 
     /**
-     * Returns the prioritized list of products.
-     * @param model the model of the application.
-     * @param products the list of products to prioritize.
-     * @return the prioritized list of products.
-     * @throws Exception if an error occurs during the prioritization.
+     * Returns the prioritized order of products whose distances are known.
+     * @param distancesMatrix the distances between the products.
+     * @return the indices of the products, in prioritized order.
      */
     @Override
-    public List<Product> prioritize(ModelPLEDGE model, List<Product> products) throws Exception {
-        int size = products.size();
-        List<Product> prioritizedProducts = new ArrayList<Product>(size);
-        List<Product> productsCopy = new ArrayList<Product>(products);
-        double[][] distancesMatrix = new double[size][size];
-        fitnessSum = 0;
+    public int[] prioritize(DistancesMatrix distancesMatrix) {
+        int size = distancesMatrix.getSize();
+        int[] order = new int[size];
+        int n = 0;
+        // Selection: the pair with the largest distance among the products not
+        // selected yet is picked, ties going to the smallest (i, j). Each row i
+        // keeps its best partner j > i, and the rows are kept in a heap. A row
+        // is only rescanned when it is popped and its partner was already
+        // selected.
+        final double[] rowsBestDistance = new double[size];
+        int[] rowsBestIndex = new int[size];
+        boolean[] selected = new boolean[size];
+        PriorityQueue<Integer> rows = new PriorityQueue<Integer>(Math.max(1, size), new Comparator<Integer>() {
 
-        //model.setCurrentAction("Computing the distances...");
-        // Computation of the distances
-        
-        double total = products.size() * (products.size() -1)/2;
-        double done = 0;
-        
-        for (int i = 0; i < distancesMatrix.length; i++) {
-            for (int j = 0; j < distancesMatrix.length; j++) {
-                distancesMatrix[i][j] = -1;
-                if (j > i) {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                int c = Double.compare(rowsBestDistance[i2], rowsBestDistance[i1]);
+                return c != 0 ? c : i1.compareTo(i2);
+            }
+        });
+        for (int i = 0; i < size - 1; i++) {
+            if (findBestPartner(distancesMatrix, i, selected, rowsBestDistance, rowsBestIndex)) {
+                rows.add(i);
+            }
+        }
 
-                    double dist = DistancesUtil.getJaccardDistance(productsCopy.get(i), productsCopy.get(j));
-                    distancesMatrix[i][j] = dist;
-                    fitnessSum += dist;
-                    done++;
-                    //model.setProgress((int) (done/total * 100.0));
+        int remaining = size;
+        while (remaining > 1 && !rows.isEmpty()) {
+            int i = rows.poll();
+            if (selected[i]) {
+                continue;
+            }
+            int j = rowsBestIndex[i];
+            if (selected[j]) {
+                if (findBestPartner(distancesMatrix, i, selected, rowsBestDistance, rowsBestIndex)) {
+                    rows.add(i);
                 }
-
+                continue;
+            }
+            order[n++] = i;
+            order[n++] = j;
+            selected[i] = selected[j] = true;
+            remaining -= 2;
+            //model.setProgress((int) ((double) n / size * 100.0));
+        }
+        for (int i = 0; i < size; i++) {
+            if (!selected[i]) {
+                order[n++] = i;
             }
-
         }
-        //model.setCurrentAction("Ordering the products...");
-        //model.setProgress(0);
-        // Selection
-        while (!productsCopy.isEmpty()) {
-            
-            if (productsCopy.size() != 1) {
-                double dmax = -1;
-                int toAddIIndex = -1;
-                int toAddJIndex = -1;
-                for (int i = 0; i < distancesMatrix.length; i++) {
-                    for (int j = 0; j < distancesMatrix.length; j++) {
-                        if (j > i) {
-                            if (distancesMatrix[i][j] > dmax) {
-                                dmax = distancesMatrix[i][j];
-                                toAddIIndex = i;
-                                toAddJIndex = j;
-                            }
-                        }
-                    }
-                }
 
-                Product pi = products.get(toAddIIndex);
-                Product pj = products.get(toAddJIndex);
-                prioritizedProducts.add(pi);
-                prioritizedProducts.add(pj);
-                productsCopy.remove(pi);
-                productsCopy.remove(pj);
+        return order;
+    }
 
-                for (int i = 0; i < distancesMatrix.length; i++) {
-                    distancesMatrix[toAddIIndex][i] = distancesMatrix[i][toAddIIndex] = distancesMatrix[i][toAddJIndex] = distancesMatrix[toAddJIndex][i] = -1;
+    /**
+     * Find the product not selected yet that is the most distant from the
+     * product i, among the products j &gt; i.
+     * @return true if such a product exists.
+     */
+    private static boolean findBestPartner(DistancesMatrix distancesMatrix, int i, boolean[] selected, double[] rowsBestDistance, int[] rowsBestIndex) {
+        double dmax = -1;
+        int best = -1;
+        int size = distancesMatrix.getSize();
+        for (int j = i + 1; j < size; j++) {
+            if (!selected[j]) {
+                double distance = distancesMatrix.get(i, j);
+                if (distance > dmax) {
+                    dmax = distance;
+                    best = j;
                 }
-            } else {
-                prioritizedProducts.add(productsCopy.get(0));
-                productsCopy.clear();
             }
-            //model.setProgress((int) ((double) prioritizedProducts.size()/products.size() * 100.0));
         }
-
-        return prioritizedProducts;
+        rowsBestDistance[i] = dmax;
+        rowsBestIndex[i] = best;
+        return best >= 0;
     }
 
     /**
@@ -119,13 +122,4 @@ public class SimilarityGreedy implements PrioritizationTechnique {
     public String getName() {
         return NAME;
     }
-
-    /**
-     * Return the fitness sum associated to the products.
-     * @return a double representing the fitness sum associated to the products.
-     */
-    @Override
-    public double getFitnessSum() {
-        return fitnessSum;
-    }
 }
@@ -19,122 +19,89 @@
  */
 package pledge.core.techniques.prioritization;
 
-import java.util.ArrayList;
-import java.util.List;
-import pledge.core.ModelPLEDGE;
-import pledge.core.Product;
-import pledge.core.techniques.DistancesUtil;
+import pledge.core.techniques.DistancesMatrix;
 
 /**
  *
  * @author Christopher Henard
  */
-public class SimilarityNearOptimal implements PrioritizationTechnique {
+public class SimilarityNearOptimal extends SimilarityTechnique {
 
     public static final String NAME = "Similarity / NearOptimal";
-    private double fitnessSum;
 
     /**
-     * Returns the prioritized list of products.
-     * @param model the model of the application.
-     * @param products the list of products to prioritize.
-     * @return the prioritized list of products.
-     * @throws Exception if an error occurs during the prioritization.
+     * Returns the prioritized order of products whose distances are known.
+     * @param distancesMatrix the distances between the products.
+     * @return the indices of the products, in prioritized order.
      */
     @Override
-    public List<Product> prioritize(ModelPLEDGE model, List<Product> products) throws Exception {
-        int size = products.size();
-        List<Product> prioritizedProducts = new ArrayList<Product>(size);
-        List<Product> productsCopy = new ArrayList<Product>(products);
-        double[][] distancesMatrix = new double[size][size];
-        fitnessSum = 0;
-
-        //model.setCurrentAction("Computing the distances...");
-        // Computation of the distances
-        double total = products.size() * (products.size() - 1) / 2;
-        double done = 0;
-        for (int i = 0; i < distancesMatrix.length; i++) {
-            for (int j = 0; j < distancesMatrix.length; j++) {
-                distancesMatrix[i][j] = -1;
-                if (j > i) {
-                    double dist = DistancesUtil.getJaccardDistance(productsCopy.get(i), productsCopy.get(j));
-                    distancesMatrix[i][j] = dist;
-                    fitnessSum += dist;
-                    done++;
-                    //model.setProgress((int) (done / total * 100.0));
-                }
-
+    public int[] prioritize(DistancesMatrix distancesMatrix) {
+        int size = distancesMatrix.getSize();
+        int[] order = new int[size];
+        if (size < 2) {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
             }
-
-        }
-
-
-        //model.setCurrentAction("Ordering the products...");
-        //model.setProgress(0);
-        List<Integer> possibleIndices = new ArrayList<Integer>();
-        List<Integer> doneIndices = new ArrayList<Integer>();
-        for (int i = 0; i < size; i++) {
-            possibleIndices.add(i);
-
+            return order;
         }
         double maxDistance = -1;
         int toAddIIndex = -1;
         int toAddJIndex = -1;
-        for (int i = 0; i < distancesMatrix.length; i++) {
-            for (int j = 0; j < distancesMatrix.length; j++) {
-                if (j > i) {
-                    if (distancesMatrix[i][j] > maxDistance) {
-                        maxDistance = distancesMatrix[i][j];
-                        toAddIIndex = i;
-                        toAddJIndex = j;
-                    }
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double distance = distancesMatrix.get(i, j);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    toAddIIndex = i;
+                    toAddJIndex = j;
                 }
             }
         }
-        Product pi = products.get(toAddIIndex);
-        Product pj = products.get(toAddJIndex);
-
-        prioritizedProducts.add(pi);
-        prioritizedProducts.add(pj);
-        productsCopy.remove(pi);
-        productsCopy.remove(pj);
-        possibleIndices.remove((Integer) toAddIIndex);
-        possibleIndices.remove((Integer) toAddJIndex);
-        doneIndices.add(toAddIIndex);
-        doneIndices.add(toAddJIndex);
 
+        // accumulatedDistances[i] is the sum of the distances between the
+        // product i and the products already selected, in selection order.
+        double[] accumulatedDistances = new double[size];
+        boolean[] selected = new boolean[size];
+        selected[toAddIIndex] = selected[toAddJIndex] = true;
+        order[0] = toAddIIndex;
+        order[1] = toAddJIndex;
+        int remaining = size - 2;
+        for (int i = 0; i < size; i++) {
+            if (!selected[i]) {
+                accumulatedDistances[i] += distancesMatrix.get(i, toAddIIndex);
+                accumulatedDistances[i] += distancesMatrix.get(i, toAddJIndex);
+            }
+        }
 
-        while (!productsCopy.isEmpty()) {
-
-            if (possibleIndices.size() > 1) {
+        while (remaining > 0) {
+            int toAdd = -1;
+            if (remaining > 1) {
                 double maxDist = -1;
-                int toAdd = -1;
-                for (Integer i : possibleIndices) {
-
-                    double distance = 0;
-                    for (Integer j : doneIndices) {
-                        distance += (j > i) ? distancesMatrix[i][j] : distancesMatrix[j][i];
-                    }
-                    if (distance > maxDist) {
-                        maxDist = distance;
+                for (int i = 0; i < size; i++) {
+                    if (!selected[i] && accumulatedDistances[i] > maxDist) {
+                        maxDist = accumulatedDistances[i];
                         toAdd = i;
                     }
                 }
-                Product p = products.get(toAdd);
-
-                prioritizedProducts.add(p);
-                productsCopy.remove(p);
-                possibleIndices.remove((Integer) toAdd);
-                doneIndices.add(toAdd);
-
             } else {
-                prioritizedProducts.add(products.get(possibleIndices.get(0)));
-                productsCopy.clear();
+                for (int i = 0; toAdd < 0; i++) {
+                    if (!selected[i]) {
+                        toAdd = i;
+                    }
+                }
             }
-            //model.setProgress((int) ((double) prioritizedProducts.size() / products.size() * 100.0));
+            order[size - remaining] = toAdd;
+            selected[toAdd] = true;
+            remaining--;
+            for (int i = 0; i < size; i++) {
+                if (!selected[i]) {
+                    accumulatedDistances[i] += distancesMatrix.get(i, toAdd);
+                }
+            }
+            //model.setProgress((int) ((double) (size - remaining) / size * 100.0));
         }
 
-        return prioritizedProducts;
+        return order;
     }
 
     /**
@@ -145,13 +112,4 @@ public class SimilarityNearOptimal implements PrioritizationTechnique {
     public String getName() {
         return NAME;
     }
-
-    /**
-     * Return the fitness sum associated to the products.
-     * @return a double representing the fitness sum associated to the products.
-     */
-    @Override
-    public double getFitnessSum() {
-        return fitnessSum;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.prioritization;
+
+import java.util.ArrayList;
+import java.util.List;
+import pledge.core.ModelPLEDGE;
+import pledge.core.Product;
+import pledge.core.techniques.DistancesMatrix;
+
+/**
+ * This class defines the techniques prioritizing the products according to
+ * the jaccard distances between them. The techniques only differ by the
+ * order they derive from the distances.
+ *
+ * @author agent
+ */
+public abstract class SimilarityTechnique implements PrioritizationTechnique {
+
+    private volatile double fitnessSum;
+
+    /**
+     * Prioritize a list of products. This method does not modify the state of
+     * the technique and may be called by several threads.
+     * @param model the model of the application.
+     * @param products the list of products to prioritize.
+     * @param keepDistances true to keep the distance matrix in the result.
+     * @return the result of the prioritization.
+     * @throws Exception if an error occurs during the prioritization.
+     */
+    @Override
+    public PrioritizationResult prioritize(ModelPLEDGE model, List<Product> products, boolean keepDistances) throws Exception {
+        DistancesMatrix distancesMatrix = DistancesMatrix.create(model, products.size());
+        boolean kept = false;
+        try {
+            double fitness = distancesMatrix.computeJaccardDistances(products, model != null ? model.getForkJoinPool() : null);
+            int[] order = prioritize(distancesMatrix);
+            PrioritizationResult result = new PrioritizationResult(products, order, fitness, keepDistances ? distancesMatrix : null);
+            kept = keepDistances;
+            return result;
+        } finally {
+            // The caller only owns the distances of a result it received.
+            if (!kept) {
+                distancesMatrix.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the prioritized list of products.
+     * @param model the model of the application.
+     * @param products the list of products to prioritize.
+     * @return the prioritized list of products.
+     * @throws Exception if an error occurs during the prioritization.
+     * @deprecated use {@link #prioritize(ModelPLEDGE, List, boolean)} instead.
+     */
+    @Deprecated
+    @Override
+    public List<Product> prioritize(ModelPLEDGE model, List<Product> products) throws Exception {
+        PrioritizationResult result = prioritize(model, products, false);
+        fitnessSum = result.getFitness();
+        return new ArrayList<Product>(result.getProducts());
+    }
+
+    /**
+     * Return the fitness sum associated to the products.
+     * @return a double representing the fitness sum associated to the products.
+     * @deprecated use {@link PrioritizationResult#getFitness()} instead.
+     */
+    @Deprecated
+    @Override
+    public double getFitnessSum() {
+        return fitnessSum;
+    }
+}
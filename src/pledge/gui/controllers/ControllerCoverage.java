@@ -43,12 +43,17 @@ public class ControllerCoverage extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent e) {
+        final Integer strength = viewPLEDGE.askCoverageStrength(model.getCoverageStrength());
+        if (strength == null) {
+            return;
+        }
+        model.setCoverageStrength(strength);
         final Thread t = new Thread(new Runnable() {
 
             @Override
             public void run() {
                 try {
-                   viewPLEDGE.displayCoverage(model.getPairwiseCoverage());
+                   viewPLEDGE.displayCoverage(model.getCoverage(strength));
                 } catch (Exception ex) {
                     Logger.getLogger(ControllerLoadFeatureModel.class.getName()).log(Level.SEVERE, null, ex);
                 }
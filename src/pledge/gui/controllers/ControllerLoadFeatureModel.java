@@ -51,6 +51,7 @@ public class ControllerLoadFeatureModel extends AbstractAction {
                 public void run() {
                     try {
                         model.loadFeatureModel(featureModelPath, featureModelPath.toLowerCase().endsWith("xml") ? ModelPLEDGE.FeatureModelFormat.SPLOT : ModelPLEDGE.FeatureModelFormat.DIMACS);
+                        model.countProducts();
                     } catch (Exception ex) {
                         Logger.getLogger(ControllerLoadFeatureModel.class.getName()).log(Level.SEVERE, null, ex);
                     }
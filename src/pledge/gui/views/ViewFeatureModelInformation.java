@@ -45,12 +45,14 @@ public class ViewFeatureModelInformation extends JPanel implements Observer {
     public static final String FEATURES = "Number of features:";
     public static final String CORE = "Number of core features:";
     public static final String DEAD = "Number of dead features:";
+    public static final String PRODUCTS = "Number of products:";
     private JLabel nameLabel, name;
     private JLabel formatLabel, format;
     private JLabel constraintsLabel, constraints;
     private JLabel featuresLabel, features;
     private JLabel coreLabel, core;
     private JLabel deadLabel, dead;
+    private JLabel productsLabel, products;
 
     public ViewFeatureModelInformation(ModelPLEDGE model) {
         super(new GridBagLayout());
@@ -69,6 +71,8 @@ public class ViewFeatureModelInformation extends JPanel implements Observer {
         core = new JLabel("-", SwingConstants.LEFT);
         deadLabel = new JLabel(DEAD);
         dead = new JLabel("-", SwingConstants.LEFT);
+        productsLabel = new JLabel(PRODUCTS);
+        products = new JLabel("-", SwingConstants.LEFT);
         GridBagConstraints c = new GridBagConstraints();
 
         Insets i = new Insets(20, 15, 0, 0);
@@ -131,6 +135,18 @@ public class ViewFeatureModelInformation extends JPanel implements Observer {
         c.gridx = 5;
         c.anchor = GridBagConstraints.BASELINE_LEADING;
         add(dead, c);
+
+        i = new Insets(0, 15, 10, 0);
+        c.gridx = 0;
+        c.gridy = 2;
+        c.insets = i;
+        c.anchor = GridBagConstraints.BASELINE_TRAILING;
+        add(productsLabel, c);
+
+        c.gridx = 1;
+        c.gridwidth = 5;
+        c.anchor = GridBagConstraints.BASELINE_LEADING;
+        add(products, c);
     }
 
     @Override
@@ -148,6 +164,9 @@ public class ViewFeatureModelInformation extends JPanel implements Observer {
                     dead.setText(""+model.getDeadFeatures().size());
                     
                 }
+                if (model.getSolver() != null) {
+                    products.setText(model.getProductsCount() != null ? model.getProductsCount().toString() : "-");
+                }
             }
         };
         if (SwingUtilities.isEventDispatchThread()) {
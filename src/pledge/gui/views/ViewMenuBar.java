@@ -56,7 +56,7 @@ public class ViewMenuBar extends JMenuBar implements Observer {
     public static final String PRIORITIZE = "Prioritize products";
     public static final String STOP = "Stop the execution";
     public static final String SAVE_PRODUCTS = "Save the products";
-    public static final String COMPUTE_PAIRWISE = "Compute the pairwise coverage";
+    public static final String COMPUTE_PAIRWISE = "Compute the t-wise coverage";
     public static final String DOC = "Documentation";
     public static final String ABOUT = "About PLEDGE...";
     public static final String PRIORITIZATION_TECHNIQUE = "Prioritization technique";
@@ -42,6 +42,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import pledge.core.ModelPLEDGE;
+import pledge.core.TuplesSet;
 import pledge.gui.controllers.ControllerCloseAbout;
 import pledge.gui.controllers.ControllerCloseEditConstraints;
 import pledge.gui.controllers.ControllerCoverage;
@@ -74,7 +75,8 @@ public class ViewPLEDGE extends JFrame implements Observer {
     private static final String FILE_CHOOSER_FEATURE_MODEL_TITLE = "Load a Feature Model";
     private static final String FILE_CHOOSER_PRODUCTS_TITLE = "Load Products";
     private static final String FILE_SAVER_PRODUCTS_TITLE = "Save Products";
-    private static final String COVERAGE_TITLE = "Pairwise coverage";
+    private static final String COVERAGE_TITLE = "T-wise coverage";
+    private static final String COVERAGE_STRENGTH_MESSAGE = "Strength of the coverage (t):";
     private final FileNameExtensionFilter featureModelFileFilter = new FileNameExtensionFilter("SPLOT or DIMACS Feature Models (.xml, .dimacs)", "xml", "dimacs");
     private static final String TAB_FEATURE_MODEL = "Feature Model";
     private final URL BACKGROUND_URL = getClass().getResource("icons/logo.png");
@@ -228,6 +230,19 @@ public class ViewPLEDGE extends JFrame implements Observer {
         JOptionPane.showMessageDialog(this, cov, COVERAGE_TITLE, JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Ask the strength of the coverage to compute.
+     * @param current the strength proposed by default.
+     * @return the chosen strength, or null if the user cancelled.
+     */
+    public Integer askCoverageStrength(int current) {
+        Integer[] strengths = new Integer[TuplesSet.MAX_STRENGTH - TuplesSet.MIN_STRENGTH + 1];
+        for (int i = 0; i < strengths.length; i++) {
+            strengths[i] = TuplesSet.MIN_STRENGTH + i;
+        }
+        return (Integer) JOptionPane.showInputDialog(this, COVERAGE_STRENGTH_MESSAGE, COVERAGE_TITLE, JOptionPane.QUESTION_MESSAGE, null, strengths, current);
+    }
+
     public void displayDocumentation() {
         SwingUtilities.invokeLater(new Runnable() {
 
@@ -0,0 +1,69 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * Tests of the backbone against the products enumerated by brute force.
+ *
+ * @author agent
+ */
+public class BackboneCalculatorTest {
+
+    private static final int VARIABLES_COUNT = 10;
+
+    @Test
+    public void backboneHoldsTheLiteralsOfAllTheProducts() throws Exception {
+        Random random = new Random(1);
+        for (int instance = 0; instance < 200; instance++) {
+            List<int[]> clauses = CNFs.randomClauses(random, VARIABLES_COUNT, 5 + random.nextInt(20));
+            List<int[]> models = CNFs.models(VARIABLES_COUNT, clauses);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int v = 1; v <= VARIABLES_COUNT; v++) {
+                boolean core = true;
+                boolean dead = true;
+                for (int[] model : models) {
+                    core &= model[v - 1] > 0;
+                    dead &= model[v - 1] < 0;
+                }
+                if (core) {
+                    expected.add(v);
+                }
+                if (dead) {
+                    expected.add(-v);
+                }
+            }
+            List<Integer> backbone;
+            try {
+                backbone = new BackboneCalculator(new CompiledCNF(VARIABLES_COUNT, clauses).createSolver("MiniSAT")).compute(VARIABLES_COUNT);
+            } catch (ContradictionException e) {
+                assertEquals(0, models.size());
+                continue;
+            }
+            assertEquals(expected, backbone);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests of the binary decision diagrams against the products enumerated by
+ * brute force.
+ *
+ * @author agent
+ */
+public class BinaryDecisionDiagramTest {
+
+    private static final int VARIABLES_COUNT = 10;
+
+    @Test
+    public void productsCountIsTheNumberOfModels() {
+        Random random = new Random(2);
+        for (int instance = 0; instance < 200; instance++) {
+            List<int[]> clauses = CNFs.randomClauses(random, VARIABLES_COUNT, random.nextInt(25));
+            BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(new CompiledCNF(VARIABLES_COUNT, clauses));
+            assertEquals(BigInteger.valueOf(CNFs.models(VARIABLES_COUNT, clauses).size()), bdd.getProductsCount());
+        }
+    }
+
+    @Test
+    public void samplesAreUniformModels() {
+        Random random = new Random(3);
+        List<int[]> clauses;
+        List<int[]> models;
+        do {
+            clauses = CNFs.randomClauses(random, VARIABLES_COUNT, 12);
+            models = CNFs.models(VARIABLES_COUNT, clauses);
+        } while (models.size() < 10);
+        BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(new CompiledCNF(VARIABLES_COUNT, clauses));
+        int samplesPerModel = 400;
+        Map<Product, Integer> counts = new HashMap<Product, Integer>();
+        for (int i = 0; i < samplesPerModel * models.size(); i++) {
+            int[] sample = bdd.sample(random);
+            assertTrue(CNFs.satisfies(sample, clauses));
+            Product product = new Product(sample);
+            Integer count = counts.get(product);
+            counts.put(product, count == null ? 1 : count + 1);
+        }
+        assertEquals(models.size(), counts.size());
+        // About 6 standard deviations of a binomial count of mean 400.
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - samplesPerModel) < 120);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Small random CNFs and their products enumerated by brute force, for the
+ * tests of the solvers of the feature models.
+ *
+ * @author agent
+ */
+final class CNFs {
+
+    private CNFs() {
+    }
+
+    /**
+     * Draw a random CNF whose clauses have 1 to 3 literals of distinct
+     * variables.
+     * @param random the random generator.
+     * @param variablesCount the number of variables.
+     * @param clausesCount the number of clauses.
+     * @return the clauses of the CNF.
+     */
+    static List<int[]> randomClauses(Random random, int variablesCount, int clausesCount) {
+        List<int[]> clauses = new ArrayList<int[]>(clausesCount);
+        for (int c = 0; c < clausesCount; c++) {
+            // Mostly binary clauses, as in the feature models.
+            int size = Math.min(variablesCount, random.nextInt(10) == 0 ? 1 : 2 + random.nextInt(2));
+            int[] clause = new int[size];
+            for (int i = 0; i < size; i++) {
+                int variable;
+                boolean distinct;
+                do {
+                    variable = 1 + random.nextInt(variablesCount);
+                    distinct = true;
+                    for (int j = 0; j < i; j++) {
+                        distinct &= Math.abs(clause[j]) != variable;
+                    }
+                } while (!distinct);
+                clause[i] = random.nextBoolean() ? variable : -variable;
+            }
+            clauses.add(clause);
+        }
+        return clauses;
+    }
+
+    /**
+     * Enumerate the products of a CNF.
+     * @param variablesCount the number of variables.
+     * @param clauses the clauses of the CNF.
+     * @return the models of the CNF, one literal per variable, sorted by variable.
+     */
+    static List<int[]> models(int variablesCount, List<int[]> clauses) {
+        List<int[]> models = new ArrayList<int[]>();
+        for (long bits = 0; bits < 1L << variablesCount; bits++) {
+            int[] model = new int[variablesCount];
+            for (int v = 1; v <= variablesCount; v++) {
+                model[v - 1] = (bits & (1L << (v - 1))) != 0 ? v : -v;
+            }
+            if (satisfies(model, clauses)) {
+                models.add(model);
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Checks that an assignment satisfies all the clauses of a CNF.
+     * @param model the assignment, one literal per variable, sorted by variable.
+     * @param clauses the clauses of the CNF.
+     * @return true if every clause has a literal of the assignment.
+     */
+    static boolean satisfies(int[] model, List<int[]> clauses) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            for (int literal : clause) {
+                satisfied |= model[Math.abs(literal) - 1] == literal;
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write a CNF in the DIMACS format, with one named feature per variable.
+     * @param file the file to write.
+     * @param variablesCount the number of variables.
+     * @param clauses the clauses of the CNF.
+     * @throws IOException if the file cannot be written.
+     */
+    static void writeDimacs(File file, int variablesCount, List<int[]> clauses) throws IOException {
+        Writer out = new FileWriter(file);
+        try {
+            for (int v = 1; v <= variablesCount; v++) {
+                out.write("c " + v + " f" + v + "\n");
+            }
+            out.write("p cnf " + variablesCount + " " + clauses.size() + "\n");
+            for (int[] clause : clauses) {
+                for (int literal : clause) {
+                    out.write(literal + " ");
+                }
+                out.write("0\n");
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the valid tuples computed in shards against the tuples of the
+ * products enumerated by brute force.
+ *
+ * @author agent
+ */
+public class CoverageCalculatorTest {
+
+    private static final int VARIABLES = 8;
+    private static final int STRENGTH = 3;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shardsSeededByWitnessesFindTheValidTuples() throws Exception {
+        Random random = new Random(15);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int n = 0; n < 10; n++) {
+                List<int[]> clauses = CNFs.randomClauses(random, VARIABLES, 4 + random.nextInt(10));
+                List<int[]> models = CNFs.models(VARIABLES, clauses);
+                if (models.isEmpty()) {
+                    continue;
+                }
+                File file = folder.newFile("model" + n + ".dimacs");
+                CNFs.writeDimacs(file, VARIABLES, clauses);
+                ModelPLEDGE model = new ModelPLEDGE();
+                model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+
+                TuplesSet expected = new TuplesSet(STRENGTH, VARIABLES);
+                List<Product> witnesses = new ArrayList<Product>();
+                for (int[] m : models) {
+                    expected.addProduct(new Product(m));
+                    if (random.nextBoolean()) {
+                        witnesses.add(new Product(m));
+                    }
+                }
+                CoverageCalculator calculator = new CoverageCalculator(model, STRENGTH);
+                calculator.addWitnesses(witnesses);
+                TuplesSet valid = calculator.computeValidTuples(pool);
+                assertEquals(expected.size(), valid.size());
+                int words = expected.getWordsCount();
+                for (int w = 0; w < words; w++) {
+                    assertEquals(expected.getWords(w, w + 1)[0], valid.getWords(w, w + 1)[0]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests of the coverage curve and of the APFD on a list of products whose
+ * pairs are counted by hand.
+ *
+ * @author agent
+ */
+public class CoverageTrackerTest {
+
+    private static final double DELTA = 1e-12;
+
+    /*
+     * The pairs of the three products are {1, 2}, {1, 3}, {2, 3}, then
+     * {1, -2}, {1, -3}, {-2, -3}, then only {2, -3}, {1, 2} and {1, -3}
+     * being already covered.
+     */
+    private static CoverageTracker track() {
+        CoverageTracker tracker = new CoverageTracker(new PairsSet(3));
+        assertEquals(3, tracker.addProduct(new Product(new int[]{1, 2, 3})));
+        assertEquals(3, tracker.addProduct(new Product(new int[]{1, -2, -3})));
+        assertEquals(1, tracker.addProduct(new Product(new int[]{1, 2, -3})));
+        return tracker;
+    }
+
+    @Test
+    public void curveOfTheValidTuples() {
+        CoverageTracker tracker = track();
+        tracker.setValidTuplesCount(10);
+        assertArrayEquals(new long[]{3, 6, 7}, tracker.getCoveredCounts());
+        assertArrayEquals(new long[]{3, 3, 1}, tracker.getMarginalGains());
+        assertArrayEquals(new double[]{0.3, 0.6, 0.7}, tracker.getCurve(), DELTA);
+        assertEquals((0.3 + 0.6 + 0.7) / 3, tracker.getArea(), DELTA);
+        // Three tuples found by the first product, three by the second, one
+        // by the third and three after the last one: 1 - 24 / 30 + 1 / 6.
+        assertEquals(1 - 24 / 30.0 + 1 / 6.0, tracker.getAPFD(), DELTA);
+    }
+
+    @Test
+    public void curveOfTheCoveredTuples() {
+        CoverageTracker tracker = track();
+        assertArrayEquals(new double[]{3 / 7.0, 6 / 7.0, 1}, tracker.getCurve(), DELTA);
+        assertEquals(16 / 21.0, tracker.getArea(), DELTA);
+        assertEquals(1 - 12 / 21.0 + 1 / 6.0, tracker.getAPFD(), DELTA);
+    }
+
+    @Test
+    public void emptyListsHaveNoArea() {
+        CoverageTracker tracker = new CoverageTracker(new PairsSet(3));
+        assertEquals(0, tracker.getArea(), DELTA);
+        assertEquals(0, tracker.getAPFD(), DELTA);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sat4j.reader.ParseFormatException;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * Tests of the reading of the DIMACS clauses.
+ *
+ * @author agent
+ */
+public class DimacsClausesReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<int[]> read(String dimacs) throws Exception {
+        DimacsClausesReader reader = new DimacsClausesReader();
+        reader.read(new StringReader(dimacs));
+        return reader.getClauses();
+    }
+
+    @Test
+    public void clausesEndWithZeroAcrossLines() throws Exception {
+        DimacsClausesReader reader = new DimacsClausesReader();
+        reader.read(new StringReader("c 1 a\nc 2 b\nc 3 c\np cnf 3 3\n1 2 0 -1 -2 0\n3\n -1 0\n\n"));
+        assertEquals(3, reader.getVariablesCount());
+        List<int[]> clauses = reader.getClauses();
+        assertEquals(3, clauses.size());
+        assertArrayEquals(new int[]{1, 2}, clauses.get(0));
+        assertArrayEquals(new int[]{-1, -2}, clauses.get(1));
+        assertArrayEquals(new int[]{3, -1}, clauses.get(2));
+    }
+
+    @Test
+    public void emptyClausesAreKept() throws Exception {
+        List<int[]> clauses = read("p cnf 2 3\n1 0\n0\n-2 0\n");
+        assertEquals(3, clauses.size());
+        assertArrayEquals(new int[0], clauses.get(1));
+        assertArrayEquals(new int[]{-2}, clauses.get(2));
+    }
+
+    @Test(expected = ContradictionException.class)
+    public void emptyClausesMakeTheModelUnsatisfiable() throws Exception {
+        File file = folder.newFile("empty.dimacs");
+        Writer out = new FileWriter(file);
+        try {
+            out.write("c 1 a\nc 2 b\np cnf 2 2\n1 2 0\n0\n");
+        } finally {
+            out.close();
+        }
+        new ModelPLEDGE().loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+    }
+
+    @Test
+    public void lastClauseMayMissItsZero() throws Exception {
+        List<int[]> clauses = read("p cnf 2 2\n1 0\n-1 2");
+        assertEquals(2, clauses.size());
+        assertArrayEquals(new int[]{-1, 2}, clauses.get(1));
+    }
+
+    @Test
+    public void percentLineEndsTheClauses() throws Exception {
+        assertEquals(1, read("p cnf 2 1\n1 2 0\n%\n0\n").size());
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void wrongNumberOfClausesIsRejected() throws Exception {
+        read("p cnf 2 3\n1 2 0\n-1 0\n");
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void missingProblemLineIsRejected() throws Exception {
+        read("c 1 a\n1 0\n");
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void otherProblemsAreRejected() throws Exception {
+        read("p sat 2 1\n1 0\n");
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void literalsMustBeIntegers() throws Exception {
+        read("p cnf 2 1\n1 x 0\n");
+    }
+}
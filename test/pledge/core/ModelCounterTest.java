@@ -0,0 +1,83 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the counts of the products against the products enumerated by
+ * brute force.
+ *
+ * @author agent
+ */
+public class ModelCounterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ModelPLEDGE load(int variablesCount, List<int[]> clauses) throws Exception {
+        File file = folder.newFile();
+        CNFs.writeDimacs(file, variablesCount, clauses);
+        ModelPLEDGE model = new ModelPLEDGE();
+        model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+        return model;
+    }
+
+    @Test
+    public void exactCountIsTheNumberOfModels() throws Exception {
+        Random random = new Random(4);
+        for (int instance = 0; instance < 50; instance++) {
+            int variablesCount = 4 + random.nextInt(9);
+            List<int[]> clauses = CNFs.randomClauses(random, variablesCount, 1 + random.nextInt(variablesCount * 2));
+            List<int[]> models = CNFs.models(variablesCount, clauses);
+            if (models.isEmpty()) {
+                continue;
+            }
+            ModelCounter counter = new ModelCounter(load(variablesCount, clauses));
+            assertEquals(BigInteger.valueOf(models.size()), counter.countExact());
+        }
+    }
+
+    @Test
+    public void estimationIsWithinTheTolerance() throws Exception {
+        Random random = new Random(5);
+        int variablesCount = 16;
+        List<int[]> clauses = CNFs.randomClauses(random, variablesCount, 10);
+        double count = CNFs.models(variablesCount, clauses).size();
+        ModelCounter counter = new ModelCounter(load(variablesCount, clauses));
+        counter.setRandom(new Random(6));
+        counter.setTimeoutMS(60000);
+        ModelCount estimate = counter.countApproximate();
+        double tolerance = estimate.getTolerance();
+        double estimated = estimate.getCount().doubleValue();
+        assertTrue(count > 1000);
+        assertFalse(estimate.isExact());
+        assertTrue(estimated >= count / (1 + tolerance) && estimated <= count * (1 + tolerance));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ISolver;
+
+/**
+ * Tests of the reproducibility of the products drawn with a given seed.
+ *
+ * @author agent
+ */
+public class ModelPLEDGETest {
+
+    private static final int VARIABLES_COUNT = 14;
+    private static final int PRODUCTS_COUNT = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File createFeatureModel() throws Exception {
+        Random random = new Random(7);
+        List<int[]> clauses;
+        do {
+            clauses = CNFs.randomClauses(random, VARIABLES_COUNT, 12);
+        } while (CNFs.models(VARIABLES_COUNT, clauses).size() < PRODUCTS_COUNT * 5);
+        File file = folder.newFile();
+        CNFs.writeDimacs(file, VARIABLES_COUNT, clauses);
+        return file;
+    }
+
+    private static ModelPLEDGE load(File file, long seed) throws Exception {
+        ModelPLEDGE model = new ModelPLEDGE();
+        model.setParallelism(2);
+        model.setSeed(seed);
+        model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+        return model;
+    }
+
+    @Test
+    public void sameSeedDrawsSameProducts() throws Exception {
+        File file = createFeatureModel();
+        ModelPLEDGE model1 = load(file, 42);
+        ModelPLEDGE model2 = load(file, 42);
+        assertEquals(model1.getUnpredictableProducts(PRODUCTS_COUNT), model2.getUnpredictableProducts(PRODUCTS_COUNT));
+        assertEquals(model1.sampleProducts(PRODUCTS_COUNT), model2.sampleProducts(PRODUCTS_COUNT));
+        assertEquals(model1.getUniformProducts(PRODUCTS_COUNT, model1.createRandom()), model2.getUniformProducts(PRODUCTS_COUNT, model2.createRandom()));
+    }
+
+    @Test
+    public void drawnProductsAreDistinctAndValid() throws Exception {
+        File file = createFeatureModel();
+        ModelPLEDGE model = load(file, 43);
+        List<Product> products = model.sampleProducts(PRODUCTS_COUNT);
+        assertEquals(PRODUCTS_COUNT, new HashSet<Product>(products).size());
+        ISolver solver = model.createSolver();
+        for (Product product : products) {
+            assertTrue(solver.isSatisfiable(new VecInt(product.toModel())));
+        }
+    }
+}
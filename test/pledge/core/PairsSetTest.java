@@ -0,0 +1,99 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the ranks of the pairs and of the sets of pairs.
+ *
+ * @author agent
+ */
+public class PairsSetTest {
+
+    private static final int NB_FEATURES = 6;
+
+    @Test
+    public void unrankInvertsRank() {
+        long pairsCount = PairsSet.getPairsCount(NB_FEATURES);
+        assertEquals(NB_FEATURES * 2 * (NB_FEATURES * 2 - 1) / 2, pairsCount);
+        long rank = 0;
+        for (int b = 1; b < NB_FEATURES * 2; b++) {
+            for (int a = 0; a < b; a++, rank++) {
+                assertEquals(rank, PairsSet.rank(a, b));
+                assertEquals(rank, PairsSet.rank(b, a));
+                assertArrayEquals(new int[]{a, b}, PairsSet.unrank(rank));
+                assertEquals(rank, TuplesSet.rank(new int[]{a, b}));
+            }
+        }
+        assertEquals(pairsCount, rank);
+        int[] pair = {123456, 7654321};
+        assertArrayEquals(pair, PairsSet.unrank(PairsSet.rank(pair[0], pair[1])));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pairsNeedTwoLiterals() {
+        PairsSet.rank(3, 3);
+    }
+
+    @Test
+    public void productsCoverThePairsOfTheirLiterals() {
+        int[] model = {1, -2, 3, -4, 5};
+        PairsSet pairs = new Product(model).getCoveredPairs();
+        assertEquals(10, pairs.size());
+        for (int i = 1; i <= NB_FEATURES; i++) {
+            for (int j = -NB_FEATURES; j <= NB_FEATURES; j++) {
+                for (int literal : new int[]{i, -i}) {
+                    if (j != 0 && Math.abs(j) != i) {
+                        boolean covered = contains(model, literal) && contains(model, j);
+                        assertEquals(covered, pairs.contains(literal, j));
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] model, int literal) {
+        for (int l : model) {
+            if (l == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void pairsSetsOfDifferentSizesMerge() {
+        PairsSet small = new PairsSet(2);
+        assertTrue(small.add(1, -2));
+        assertFalse(small.add(-2, 1));
+        PairsSet large = new PairsSet(NB_FEATURES);
+        large.add(-1, NB_FEATURES);
+        large.addAll(small);
+        assertEquals(2, large.size());
+        assertTrue(large.contains(-2, 1));
+        assertTrue(large.contains(NB_FEATURES, -1));
+        assertFalse(large.contains(1, 2));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+
+/**
+ * Tests of the products stored as bit sets against sets of literals.
+ *
+ * @author agent
+ */
+public class ProductTest {
+
+    private static final int NB_FEATURES = 100;
+
+    private static int randomLiteral(Random random) {
+        int feature = 1 + random.nextInt(NB_FEATURES);
+        return random.nextBoolean() ? feature : -feature;
+    }
+
+    @Test
+    public void productsBehaveAsSetsOfLiterals() {
+        Random random = new Random(10);
+        Product product = new Product();
+        Set<Integer> literals = new HashSet<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            int literal = randomLiteral(random);
+            if (random.nextInt(3) == 0) {
+                assertEquals(literals.remove(literal), product.remove(literal));
+            } else {
+                assertEquals(literals.add(literal), product.add(literal));
+            }
+            assertEquals(literals.size(), product.size());
+            int other = randomLiteral(random);
+            assertEquals(literals.contains(other), product.contains(other));
+        }
+        assertEquals(literals, product);
+        assertEquals(product, literals);
+        assertEquals(literals.hashCode(), product.hashCode());
+    }
+
+    @Test
+    public void modelIsSortedByFeature() {
+        Product product = new Product(new int[]{5, -1, 130, -64, 2});
+        assertArrayEquals(new int[]{-1, 2, 5, -64, 130}, product.toModel());
+        Set<Integer> iterated = new TreeSet<Integer>();
+        for (int literal : product) {
+            iterated.add(literal);
+        }
+        assertEquals(new TreeSet<Integer>(product), iterated);
+    }
+
+    @Test
+    public void iteratorRemovesTheLastLiteral() {
+        Product product = new Product(new int[]{1, -2, 3});
+        Iterator<Integer> iterator = product.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == -2) {
+                iterator.remove();
+            }
+        }
+        assertArrayEquals(new int[]{1, 3}, product.toModel());
+        assertFalse(product.contains(-2));
+    }
+
+    @Test
+    public void equalProductsHaveEqualFingerprints() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            Product product1 = new Product(NB_FEATURES);
+            Product product2 = new Product();
+            int[] model = new int[20];
+            for (int j = 0; j < model.length; j++) {
+                model[j] = randomLiteral(random);
+                product1.add(model[j]);
+            }
+            for (int j = model.length - 1; j >= 0; j--) {
+                product2.add(model[j]);
+            }
+            assertEquals(product1, product2);
+            assertEquals(product1.getFingerprint(), product2.getFingerprint());
+            assertEquals(product1.size(), product1.intersectionSize(product2));
+            assertTrue(product2.remove(model[0]));
+            assertFalse(product1.equals(product2));
+        }
+    }
+}
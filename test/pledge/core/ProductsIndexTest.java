@@ -0,0 +1,91 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests of the index of the products, with products whose fingerprints
+ * collide.
+ *
+ * @author agent
+ */
+public class ProductsIndexTest {
+
+    /**
+     * Returns a product whose fingerprint is the same for all the products.
+     */
+    private static Product colliding(int... literals) {
+        return new Product(literals) {
+
+            @Override
+            public long getFingerprint() {
+                return 42;
+            }
+        };
+    }
+
+    @Test
+    public void productsAreFoundByTheirLiterals() {
+        ProductsIndex index = new ProductsIndex(Arrays.asList(new Product(new int[]{1, -2}), new Product(new int[]{-1, 2})));
+        assertEquals(2, index.size());
+        assertTrue(index.contains(new Product(new int[]{-2, 1})));
+        assertFalse(index.contains(new Product(new int[]{1, 2})));
+        assertFalse(index.add(new Product(new int[]{1, -2})));
+        assertTrue(index.remove(new Product(new int[]{1, -2})));
+        assertFalse(index.remove(new Product(new int[]{1, -2})));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void collidingProductsAreKept() {
+        Product a = colliding(1, 2, 3);
+        Product b = colliding(1, -2, 3);
+        Product c = colliding(-1, 2, -3);
+        ProductsIndex index = new ProductsIndex();
+        assertTrue(index.add(a));
+        assertTrue(index.add(b));
+        assertTrue(index.add(c));
+        assertFalse(index.add(colliding(1, -2, 3)));
+        assertEquals(3, index.size());
+        assertTrue(index.contains(colliding(-1, 2, -3)));
+        assertFalse(index.contains(colliding(-1, -2, -3)));
+
+        // A colliding product takes the place of the removed one.
+        assertTrue(index.remove(colliding(1, 2, 3)));
+        assertFalse(index.contains(a));
+        assertTrue(index.contains(b));
+        assertTrue(index.contains(c));
+        assertEquals(2, index.size());
+
+        assertTrue(index.remove(c));
+        assertFalse(index.remove(c));
+        assertFalse(index.remove(colliding(-1, -2, -3)));
+        assertTrue(index.contains(b));
+        assertEquals(1, index.size());
+        assertTrue(index.remove(b));
+        assertEquals(0, index.size());
+        assertFalse(index.contains(b));
+    }
+}
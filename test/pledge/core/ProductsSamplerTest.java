@@ -0,0 +1,93 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the products drawn by several solvers, which only depend on the
+ * seed and on the number of solvers.
+ *
+ * @author agent
+ */
+public class ProductsSamplerTest {
+
+    private static final int VARIABLES = 12;
+    private static final int COUNT = 60;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private ModelPLEDGE model;
+    private List<int[]> clauses;
+
+    @Before
+    public void loadModel() throws Exception {
+        clauses = CNFs.randomClauses(new Random(22), VARIABLES, 8);
+        assertTrue(CNFs.models(VARIABLES, clauses).size() > COUNT * 2);
+        File file = folder.newFile("model.dimacs");
+        CNFs.writeDimacs(file, VARIABLES, clauses);
+        model = new ModelPLEDGE();
+        model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+    }
+
+    private List<Product> sample(long seed, int solversCount) throws Exception {
+        ProductsSampler sampler = new ProductsSampler(model, new Random(seed));
+        sampler.setSolversCount(solversCount);
+        // Small queues make the samplers wait for the calling thread.
+        sampler.setQueueCapacity(solversCount * 2);
+        return sampler.sample(COUNT);
+    }
+
+    @Test
+    public void productsOnlyDependOnTheSeedAndTheSolvers() throws Exception {
+        for (int solversCount = 1; solversCount <= 4; solversCount++) {
+            List<Product> products = sample(5, solversCount);
+            assertEquals(COUNT, products.size());
+            assertEquals(COUNT, new HashSet<Product>(products).size());
+            for (Product product : products) {
+                int[] literals = new int[VARIABLES];
+                for (int literal : product.toModel()) {
+                    literals[Math.abs(literal) - 1] = literal;
+                }
+                assertTrue(CNFs.satisfies(literals, clauses));
+            }
+            for (int run = 0; run < 3; run++) {
+                assertEquals(products, sample(5, solversCount));
+            }
+        }
+    }
+
+    @Test
+    public void modelSamplesAreReproducible() throws Exception {
+        model.setParallelism(3);
+        model.setSeed(7);
+        List<Product> products = model.sampleProducts(COUNT);
+        model.setSeed(7);
+        assertEquals(products, model.sampleProducts(COUNT));
+    }
+}
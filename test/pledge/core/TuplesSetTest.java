@@ -0,0 +1,80 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests of the ranks of the tuples and of the sets of tuples.
+ *
+ * @author agent
+ */
+public class TuplesSetTest {
+
+    private static final int NB_FEATURES = 6;
+
+    @Test
+    public void ranksFollowTheColexicographicOrder() {
+        for (int strength = TuplesSet.MIN_STRENGTH; strength <= 4; strength++) {
+            long tuplesCount = TuplesSet.getTuplesCount(NB_FEATURES, strength);
+            assertEquals(TuplesSet.binomial(NB_FEATURES * 2, strength), tuplesCount);
+            int[] indices = new int[strength];
+            TuplesSet.unrank(0, indices);
+            for (long rank = 0; rank < tuplesCount; rank++, TuplesSet.next(indices)) {
+                for (int i = 1; i < strength; i++) {
+                    assertTrue(indices[i - 1] < indices[i]);
+                }
+                assertTrue(indices[strength - 1] < NB_FEATURES * 2);
+                assertEquals(rank, TuplesSet.rank(indices));
+                int[] unranked = new int[strength];
+                TuplesSet.unrank(rank, unranked);
+                assertArrayEquals(indices, unranked);
+            }
+        }
+    }
+
+    @Test
+    public void unrankInvertsRankForLargeRanks() {
+        int[] indices = {3, 70, 1000, 40000};
+        int[] unranked = new int[indices.length];
+        TuplesSet.unrank(TuplesSet.rank(indices), unranked);
+        assertArrayEquals(indices, unranked);
+    }
+
+    @Test
+    public void productsCoverTheTuplesOfTheirLiterals() {
+        Product product = new Product(new int[]{1, -2, 3, -4, 5});
+        for (int strength = TuplesSet.MIN_STRENGTH; strength <= 4; strength++) {
+            TuplesSet tuples = new TuplesSet(strength);
+            assertEquals(TuplesSet.binomial(5, strength), tuples.addProduct(product));
+            assertEquals(0, tuples.addProduct(product));
+            assertEquals(TuplesSet.binomial(5, strength), tuples.size());
+            int[] literals = Arrays.copyOf(new int[]{5, -2, 1, 3}, strength);
+            assertTrue(tuples.contains(literals));
+            literals[0] = -5;
+            assertFalse(tuples.contains(literals));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the valid pairs computed in parallel against the pairs of the
+ * products enumerated by brute force.
+ *
+ * @author agent
+ */
+public class ValidPairsCalculatorTest {
+
+    private static final int VARIABLES = 9;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void assertValidPairs(List<int[]> models, PairsSet pairs) {
+        for (int l1 = -VARIABLES; l1 <= VARIABLES; l1++) {
+            for (int l2 = l1 + 1; l2 <= VARIABLES; l2++) {
+                if (l1 != 0 && l2 != 0 && l1 != -l2) {
+                    boolean valid = false;
+                    for (int[] model : models) {
+                        valid |= model[Math.abs(l1) - 1] == l1 && model[Math.abs(l2) - 1] == l2;
+                    }
+                    assertEquals(l1 + " " + l2, valid, pairs.contains(l1, l2));
+                }
+            }
+        }
+        for (int v = 1; v <= VARIABLES; v++) {
+            assertEquals(false, pairs.contains(v, -v));
+        }
+    }
+
+    @Test
+    public void parallelPairsAreTheValidOnes() throws Exception {
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n = 0; n < 20; n++) {
+                List<int[]> clauses = CNFs.randomClauses(random, VARIABLES, 4 + random.nextInt(12));
+                List<int[]> models = CNFs.models(VARIABLES, clauses);
+                if (models.isEmpty()) {
+                    continue;
+                }
+                File file = folder.newFile("model" + n + ".dimacs");
+                CNFs.writeDimacs(file, VARIABLES, clauses);
+                ModelPLEDGE model = new ModelPLEDGE();
+                model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+                for (ForkJoinPool p : new ForkJoinPool[]{pool, new ForkJoinPool(1)}) {
+                    assertValidPairs(models, new ValidPairsCalculator(model).compute(p));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void witnessesSkipSatChecksWithoutStaticAnalysis() throws Exception {
+        Random random = new Random(12);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int n = 0; n < 20; n++) {
+                List<int[]> clauses = CNFs.randomClauses(random, VARIABLES, 4 + random.nextInt(12));
+                List<int[]> models = CNFs.models(VARIABLES, clauses);
+                if (models.isEmpty()) {
+                    continue;
+                }
+                File file = folder.newFile("model" + n + ".dimacs");
+                CNFs.writeDimacs(file, VARIABLES, clauses);
+                ModelPLEDGE model = new ModelPLEDGE();
+                model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+
+                ValidPairsCalculator calculator = new ValidPairsCalculator(model);
+                calculator.setStaticAnalysis(false);
+                assertValidPairs(models, calculator.compute(pool));
+
+                // Every valid pair is witnessed by one of the products, and
+                // the invalid configurations are only checked.
+                List<Product> witnesses = new ArrayList<Product>();
+                for (int[] m : models) {
+                    witnesses.add(new Product(m));
+                }
+                witnesses.add(new Product(new int[]{1, -1}));
+                ValidPairsCalculator witnessed = new ValidPairsCalculator(model);
+                witnessed.setStaticAnalysis(false);
+                witnessed.addWitnesses(witnesses);
+                assertValidPairs(models, witnessed.compute(pool));
+                long invalidPairsCount = PairsSet.getPairsCount(VARIABLES) - witnessed.compute(pool).size() - VARIABLES;
+                assertEquals(witnesses.size() + invalidPairsCount, witnessed.getSatCallsCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
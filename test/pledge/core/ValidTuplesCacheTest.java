@@ -0,0 +1,101 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the files of the cache of the valid tuples and of the numbers of
+ * products.
+ *
+ * @author agent
+ */
+public class ValidTuplesCacheTest {
+
+    private static final int VARIABLES = 7;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private ModelPLEDGE model;
+    private List<int[]> models;
+    private ValidTuplesCache cache;
+
+    @Before
+    public void loadModel() throws Exception {
+        List<int[]> clauses = CNFs.randomClauses(new Random(17), VARIABLES, 6);
+        models = CNFs.models(VARIABLES, clauses);
+        File file = folder.newFile("model.dimacs");
+        CNFs.writeDimacs(file, VARIABLES, clauses);
+        model = new ModelPLEDGE();
+        model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+        cache = new ValidTuplesCache(folder.newFolder("cache").getPath());
+    }
+
+    @Test
+    public void storedTuplesAreLoaded() throws Exception {
+        TuplesSet tuples = new TuplesSet(3, VARIABLES);
+        for (int[] m : models) {
+            tuples.addProduct(new Product(m));
+        }
+        assertNull(cache.load(model, 3));
+        cache.store(model, tuples);
+        TuplesSet loaded = cache.load(model, 3);
+        assertNotNull(loaded);
+        assertEquals(tuples.size(), loaded.size());
+        for (int w = 0; w < tuples.getWordsCount(); w++) {
+            assertEquals(tuples.getWords(w, w + 1)[0], loaded.getWords(w, w + 1)[0]);
+        }
+        assertNull(cache.load(model, 2));
+    }
+
+    @Test
+    public void truncatedFilesAreIgnored() throws Exception {
+        cache.store(model, new TuplesSet(3, VARIABLES));
+        File[] files = new File(folder.getRoot(), "cache").listFiles();
+        assertEquals(1, files.length);
+        RandomAccessFile raf = new RandomAccessFile(files[0], "rw");
+        try {
+            raf.setLength(raf.length() - 8);
+        } finally {
+            raf.close();
+        }
+        assertNull(cache.load(model, 3));
+    }
+
+    @Test
+    public void onlyExactCountsAreStored() throws Exception {
+        cache.storeCount(model, new ModelCount(BigInteger.valueOf(42), false, 0.2, 0.8));
+        assertNull(cache.loadCount(model));
+        cache.storeCount(model, new ModelCount(BigInteger.valueOf(models.size())));
+        ModelCount count = cache.loadCount(model);
+        assertEquals(BigInteger.valueOf(models.size()), count.getCount());
+        assertEquals(true, count.isExact());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pledge.core.ModelPLEDGE;
+import pledge.core.Product;
+
+/**
+ * Tests of the storage of the distances in each backing of the matrices.
+ *
+ * @author agent
+ */
+public class DistancesMatrixTest {
+
+    private static final int SIZE = 57;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Store random distances in a matrix, by cells and by rows, and read them back.
+     */
+    private static void checkRoundTrip(DistancesMatrix matrix, boolean floatPrecision) throws Exception {
+        Random random = new Random(16);
+        double[][] distances = new double[SIZE][SIZE];
+        try {
+            assertEquals(SIZE, matrix.getSize());
+            for (int i = 0; i < SIZE; i++) {
+                double[] row = new double[SIZE];
+                for (int j = i + 1; j < SIZE; j++) {
+                    row[j] = random.nextDouble();
+                    distances[i][j] = distances[j][i] = floatPrecision ? (float) row[j] : row[j];
+                }
+                if (i % 2 == 0) {
+                    matrix.setRow(i, row);
+                } else {
+                    for (int j = i + 1; j < SIZE; j++) {
+                        // Either order of the indices stores the same cell.
+                        if (j % 2 == 0) {
+                            matrix.set(i, j, row[j]);
+                        } else {
+                            matrix.set(j, i, row[j]);
+                        }
+                    }
+                }
+            }
+            double sum = 0;
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    if (i != j) {
+                        assertEquals(distances[i][j], matrix.get(i, j), 0);
+                    }
+                    if (j > i) {
+                        sum += distances[i][j];
+                    }
+                }
+            }
+            assertEquals(sum, matrix.getSum(), 1e-9);
+        } finally {
+            matrix.close();
+        }
+    }
+
+    @Test
+    public void heapBackingsKeepTheDistances() throws Exception {
+        checkRoundTrip(new DoubleDistancesMatrix(SIZE), false);
+        checkRoundTrip(new FloatDistancesMatrix(SIZE), true);
+    }
+
+    @Test
+    public void directBuffersKeepTheDistances() throws Exception {
+        checkRoundTrip(new BufferDistancesMatrix(SIZE, false, null), false);
+        checkRoundTrip(new BufferDistancesMatrix(SIZE, true, null), true);
+    }
+
+    @Test
+    public void mappedFilesKeepTheDistancesAndAreDeleted() throws Exception {
+        for (boolean floatPrecision : new boolean[]{false, true}) {
+            File file = folder.newFile();
+            checkRoundTrip(new BufferDistancesMatrix(SIZE, floatPrecision, file), floatPrecision);
+            assertFalse(file.exists());
+        }
+    }
+
+    @Test
+    public void closingTwiceIsHarmless() throws Exception {
+        DistancesMatrix matrix = new BufferDistancesMatrix(SIZE, false, folder.newFile());
+        matrix.close();
+        matrix.close();
+    }
+
+    @Test
+    public void backingDependsOnTheHeapBudget() throws Exception {
+        ModelPLEDGE model = new ModelPLEDGE();
+        DistancesMatrix matrix = DistancesMatrix.create(model, SIZE);
+        assertTrue(matrix instanceof DoubleDistancesMatrix);
+        matrix.close();
+        model.setDistancesFloatPrecision(true);
+        matrix = DistancesMatrix.create(model, SIZE);
+        assertTrue(matrix instanceof FloatDistancesMatrix);
+        matrix.close();
+
+        File spillDirectory = folder.newFolder();
+        model.setDistancesHeapBudget(0);
+        model.setDistancesSpillDirectory(spillDirectory.getPath());
+        matrix = DistancesMatrix.create(model, SIZE);
+        assertTrue(matrix instanceof BufferDistancesMatrix);
+        assertEquals(1, spillDirectory.list().length);
+        checkRoundTrip(matrix, true);
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void parallelSumIsTheSequentialOne() throws Exception {
+        Random random = new Random(17);
+        List<Product> products = new ArrayList<Product>();
+        for (int p = 0; p < 600; p++) {
+            Product product = new Product(50);
+            for (int f = 1; f <= 50; f++) {
+                product.add(random.nextBoolean() ? f : -f);
+            }
+            products.add(product);
+        }
+        // The single running sum of the original sequential computation.
+        double expected = 0;
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                expected += DistancesUtil.getJaccardDistance(products.get(i), products.get(j));
+            }
+        }
+        for (int parallelism : new int[]{1, 2, 4, 7}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            DistancesMatrix matrix = new DoubleDistancesMatrix(products.size());
+            try {
+                assertEquals(expected, matrix.computeJaccardDistances(products, pool), 0);
+                assertEquals(expected, matrix.getSum(), 0);
+                assertEquals(DistancesUtil.getJaccardDistance(products.get(5), products.get(321)), matrix.get(321, 5), 0);
+            } finally {
+                matrix.close();
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import pledge.core.Product;
+
+/**
+ * Tests of the set based distances against their computation on copies of
+ * the sets of literals.
+ *
+ * @author agent
+ */
+public class DistancesUtilTest {
+
+    private static double setBasedDistance(Product p1, Product p2, double weight) {
+        Set<Integer> intersection = new HashSet<Integer>(p1);
+        Set<Integer> union = new HashSet<Integer>(p1);
+        intersection.retainAll(p2);
+        union.addAll(p2);
+        double intersectionSize = intersection.size();
+        double unionSize = union.size();
+        return 1.0 - (intersectionSize / (intersectionSize + weight * (unionSize - intersectionSize)));
+    }
+
+    private static List<Product> randomProducts(Random random, int count) {
+        List<Product> products = new ArrayList<Product>(count);
+        for (int p = 0; p < count; p++) {
+            Product product = new Product();
+            // Partial products of different sizes, over up to 150 features.
+            int nbFeatures = 1 + random.nextInt(150);
+            for (int f = 1; f <= nbFeatures; f++) {
+                if (random.nextInt(4) != 0) {
+                    product.add(random.nextBoolean() ? f : -f);
+                }
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    @Test
+    public void distancesAreTheOnesOfTheSets() {
+        List<Product> products = randomProducts(new Random(12), 40);
+        for (Product p1 : products) {
+            for (Product p2 : products) {
+                assertEquals(setBasedDistance(p1, p2, 1.0), DistancesUtil.getJaccardDistance(p1, p2), 0);
+                assertEquals(setBasedDistance(p1, p2, 0.5), DistancesUtil.getDiceDistance(p1, p2), 0);
+                assertEquals(setBasedDistance(p1, p2, 2.0), DistancesUtil.getAntiDiceDistance(p1, p2), 0);
+            }
+        }
+    }
+
+    @Test
+    public void rangeOfDistancesStartsAtTheGivenIndex() {
+        List<Product> products = randomProducts(new Random(13), 20);
+        double[] distances = new double[products.size()];
+        DistancesUtil.getJaccardDistances(products.get(3), products, 5, distances);
+        for (int j = 0; j < products.size(); j++) {
+            double expected = j < 5 ? 0 : setBasedDistance(products.get(3), products.get(j), 1.0);
+            assertEquals(expected, distances[j], 0);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pledge.core.ModelPLEDGE;
+import pledge.core.Product;
+import pledge.core.ProductsGenerator;
+import pledge.core.techniques.prioritization.SimilarityGreedy;
+
+/**
+ * Tests of the incremental evaluation of the individuals against the
+ * prioritization of all their products.
+ *
+ * @author agent
+ */
+public class IndividualTest {
+
+    private static final int FEATURES = 24;
+    private static final int PRODUCTS = 30;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private ModelPLEDGE model;
+
+    @Before
+    public void loadModel() throws Exception {
+        File file = folder.newFile("model.dimacs");
+        Writer out = new FileWriter(file);
+        try {
+            for (int v = 1; v <= FEATURES; v++) {
+                out.write("c " + v + " f" + v + "\n");
+            }
+            out.write("p cnf " + FEATURES + " " + (FEATURES / 2) + "\n");
+            for (int v = 1; v < FEATURES; v += 2) {
+                out.write("-" + v + " " + (v + 1) + " 0\n");
+            }
+        } finally {
+            out.close();
+        }
+        model = new ModelPLEDGE();
+        model.loadFeatureModel(file.getPath(), ModelPLEDGE.FeatureModelFormat.DIMACS);
+    }
+
+    private Individual newIndividual(long seed) throws Exception {
+        ProductsGenerator generator = new ProductsGenerator(model, new Random(seed));
+        List<Product> products = new ArrayList<Product>();
+        while (products.size() < PRODUCTS) {
+            Product p = generator.nextProduct();
+            if (!products.contains(p)) {
+                products.add(p);
+            }
+        }
+        return new Individual(model, products, new SimilarityGreedy(), generator);
+    }
+
+    @Test
+    public void incrementalFitnessIsTheFullOne() throws Exception {
+        Individual indiv = newIndividual(1);
+        indiv.incrementalFitnessAndOrdering();
+        try {
+            int accepted = 0;
+            for (int i = 0; i < 2000; i++) {
+                if (indiv.mutateIncremental(Individual.MUTATE_RANDOM, model)) {
+                    accepted++;
+                }
+                if (i % 100 == 99) {
+                    List<Product> products = indiv.getProducts();
+                    Individual full = new Individual(model, new ArrayList<Product>(products), new SimilarityGreedy());
+                    full.fitnessAndOrdering();
+                    assertEquals(full.getFitness(), indiv.getFitness(), 1e-9 * full.getFitness());
+                    assertEquals(full.getProducts(), products);
+                }
+            }
+            assertTrue(accepted > 0);
+        } finally {
+            indiv.releaseDistances();
+        }
+    }
+
+    @Test
+    public void mutationsReplaceTheProductsOfThePrioritizedOrder() throws Exception {
+        Individual indiv = newIndividual(2);
+        indiv.incrementalFitnessAndOrdering();
+        try {
+            for (int mutateType : new int[]{Individual.MUTATE_WORST, Individual.MUTATE_BEST}) {
+                for (int i = 0; i < 200; i++) {
+                    List<Product> before = indiv.getProducts();
+                    boolean replaced = indiv.mutateIncremental(mutateType, model);
+                    HashSet<Product> after = new HashSet<Product>(indiv.getProducts());
+                    Product mutated = before.get(mutateType == Individual.MUTATE_WORST ? before.size() - 1 : 0);
+                    assertEquals(!replaced, after.contains(mutated));
+                    for (Product p : before) {
+                        assertTrue(p == mutated || after.contains(p));
+                    }
+                }
+            }
+            assertFalse(indiv.getProducts().isEmpty());
+        } finally {
+            indiv.releaseDistances();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.prioritization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import pledge.core.Product;
+import pledge.core.techniques.DistancesUtil;
+import pledge.core.techniques.DoubleDistancesMatrix;
+
+/**
+ * Tests of the greedy prioritization against the selection of the pairs of
+ * products by a scan of the whole matrix.
+ *
+ * @author agent
+ */
+public class SimilarityGreedyTest {
+
+    /**
+     * The original greedy selection: the most distant pair of products not
+     * selected yet is picked, ties going to the smallest (i, j).
+     */
+    private static int[] scanOrder(double[][] distances) {
+        int size = distances.length;
+        int[] order = new int[size];
+        boolean[] selected = new boolean[size];
+        int n = 0;
+        while (size - n > 1) {
+            double dmax = -1;
+            int bestI = -1;
+            int bestJ = -1;
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (!selected[i] && !selected[j] && distances[i][j] > dmax) {
+                        dmax = distances[i][j];
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+            order[n++] = bestI;
+            order[n++] = bestJ;
+            selected[bestI] = selected[bestJ] = true;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!selected[i]) {
+                order[n++] = i;
+            }
+        }
+        return order;
+    }
+
+    @Test
+    public void orderIsTheOneOfTheScan() {
+        Random random = new Random(8);
+        SimilarityGreedy greedy = new SimilarityGreedy();
+        for (int size = 0; size < 40; size++) {
+            double[][] distances = new double[size][size];
+            DoubleDistancesMatrix matrix = new DoubleDistancesMatrix(size);
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    // Few distinct distances, so that there are many ties.
+                    distances[i][j] = random.nextInt(5) / 4.0;
+                    matrix.set(i, j, distances[i][j]);
+                }
+            }
+            assertArrayEquals(scanOrder(distances), greedy.prioritize(matrix));
+        }
+    }
+
+    @Test
+    public void productsAreOrderedByTheirJaccardDistances() throws Exception {
+        Random random = new Random(9);
+        List<Product> products = new ArrayList<Product>();
+        for (int p = 0; p < 25; p++) {
+            Product product = new Product(8);
+            for (int f = 1; f <= 8; f++) {
+                product.add(random.nextBoolean() ? f : -f);
+            }
+            products.add(product);
+        }
+        double[][] distances = new double[products.size()][products.size()];
+        double fitness = 0;
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                distances[i][j] = DistancesUtil.getJaccardDistance(products.get(i), products.get(j));
+                fitness += distances[i][j];
+            }
+        }
+        PrioritizationResult result = new SimilarityGreedy().prioritize(null, products, false);
+        assertArrayEquals(scanOrder(distances), result.getOrder());
+        assertEquals(fitness, result.getFitness(), 1e-9);
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(products.get(result.getOrder()[i]), result.getProducts().get(i));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * 
+ * Author : agent (agent@local)
+ * Date : 18/10/2026
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pledge.core.techniques.prioritization;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import pledge.core.Product;
+import pledge.core.techniques.DistancesUtil;
+import pledge.core.techniques.DoubleDistancesMatrix;
+
+/**
+ * Tests of the near optimal prioritization against the original selection,
+ * which sums the distances to the selected products again for each
+ * candidate.
+ *
+ * @author agent
+ */
+public class SimilarityNearOptimalTest {
+
+    private static int[] scanOrder(double[][] distances) {
+        int size = distances.length;
+        List<Integer> order = new ArrayList<Integer>(size);
+        List<Integer> possibleIndices = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            possibleIndices.add(i);
+        }
+        if (size >= 2) {
+            double maxDistance = -1;
+            int toAddIIndex = -1;
+            int toAddJIndex = -1;
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (distances[i][j] > maxDistance) {
+                        maxDistance = distances[i][j];
+                        toAddIIndex = i;
+                        toAddJIndex = j;
+                    }
+                }
+            }
+            order.add(toAddIIndex);
+            order.add(toAddJIndex);
+            possibleIndices.remove((Integer) toAddIIndex);
+            possibleIndices.remove((Integer) toAddJIndex);
+        }
+        while (possibleIndices.size() > 1) {
+            double maxDist = -1;
+            int toAdd = -1;
+            for (int i : possibleIndices) {
+                double distance = 0;
+                for (int j : order) {
+                    distance += j > i ? distances[i][j] : distances[j][i];
+                }
+                if (distance > maxDist) {
+                    maxDist = distance;
+                    toAdd = i;
+                }
+            }
+            order.add(toAdd);
+            possibleIndices.remove((Integer) toAdd);
+        }
+        order.addAll(possibleIndices);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = order.get(i);
+        }
+        return result;
+    }
+
+    private static int[] prioritize(double[][] distances) {
+        DoubleDistancesMatrix matrix = new DoubleDistancesMatrix(distances.length);
+        for (int i = 0; i < distances.length; i++) {
+            for (int j = i + 1; j < distances.length; j++) {
+                matrix.set(i, j, distances[i][j]);
+            }
+        }
+        return new SimilarityNearOptimal().prioritize(matrix);
+    }
+
+    @Test
+    public void orderIsTheOneOfTheScanWithTies() {
+        Random random = new Random(14);
+        for (int size = 0; size < 40; size++) {
+            double[][] distances = new double[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    // Few distinct distances, so that there are many ties.
+                    distances[i][j] = random.nextInt(5) / 4.0;
+                }
+            }
+            assertArrayEquals(scanOrder(distances), prioritize(distances));
+        }
+    }
+
+    @Test
+    public void orderIsTheOneOfTheScanWithJaccardDistances() {
+        Random random = new Random(15);
+        List<Product> products = new ArrayList<Product>();
+        for (int p = 0; p < 60; p++) {
+            Product product = new Product(20);
+            for (int f = 1; f <= 20; f++) {
+                product.add(random.nextBoolean() ? f : -f);
+            }
+            products.add(product);
+        }
+        double[][] distances = new double[products.size()][products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            for (int j = i + 1; j < products.size(); j++) {
+                distances[i][j] = DistancesUtil.getJaccardDistance(products.get(i), products.get(j));
+            }
+        }
+        assertArrayEquals(scanOrder(distances), prioritize(distances));
+    }
+}